@@ -0,0 +1,69 @@
+#!/bin/bash
+
+# KYC Agents - AppCDS Archive Generation
+# Builds a dynamic class data sharing archive for one agent by running its
+# handler once inside the Lambda Java 21 base image, so the archive matches the
+# JVM build and class path used by the managed runtime.
+#
+# Usage: generate-archive.sh <shaded-jar> <handler-class> <output-dir>
+#
+# The training invocation runs without network access: AWS calls fail fast,
+# but the handler, SDK client, serialization and error paths are all loaded.
+
+set -e
+
+JAR=$1
+HANDLER=$2
+OUT_DIR=$3
+IMAGE=${LAMBDA_JAVA_IMAGE:-public.ecr.aws/lambda/java:21}
+
+if [ -z "$JAR" ] || [ -z "$HANDLER" ] || [ -z "$OUT_DIR" ]; then
+    echo "Usage: $0 <shaded-jar> <handler-class> <output-dir>"
+    exit 1
+fi
+
+WORK_DIR=$(mktemp -d)
+mkdir -p "$WORK_DIR/task/lib" "$OUT_DIR"
+cp "$JAR" "$WORK_DIR/task/lib/"
+chmod 777 "$OUT_DIR"
+
+case "$HANDLER" in
+    *DocumentValidationAgent)
+        EVENT='{"Records":[{"eventName":"ObjectCreated:Put","s3":{"bucket":{"name":"cds-training"},"object":{"key":"uploads/cds-training/passport.jpg","size":1024}}}]}' ;;
+    *DocumentIntakeHandler)
+        EVENT='{"Records":[{"messageId":"cds-training","body":"{\"Records\":[{\"s3\":{\"bucket\":{\"name\":\"cds-training\"},\"object\":{\"key\":\"uploads/cds-training/passport.jpg\"}}}]}"}]}' ;;
+    *)
+        EVENT='{"customerId":"cds-training","documentUrl":"s3://cds-training/uploads/cds-training/passport.jpg"}' ;;
+esac
+
+CONTAINER=$(docker run -d --network none \
+    -v "$WORK_DIR/task":/var/task:ro \
+    -v "$OUT_DIR":/tmp/cds \
+    -e JAVA_TOOL_OPTIONS="-XX:ArchiveClassesAtExit=/tmp/cds/classes.jsa" \
+    -e AWS_REGION=us-east-1 -e AWS_ACCESS_KEY_ID=cds -e AWS_SECRET_ACCESS_KEY=cds \
+    -e TABLE_NAME=KYCRecords -e EVENT_BUS_NAME=KYCEventBus \
+    -e DOCUMENT_BUCKET=cds-training -e COUNTERS_TABLE_NAME=KYCCounters \
+    "$IMAGE" "${HANDLER}::handleRequest")
+trap 'docker rm -f "$CONTAINER" >/dev/null; rm -rf "$WORK_DIR"' EXIT
+
+sleep 2
+echo "Training ${HANDLER}..."
+docker exec "$CONTAINER" curl -s -X POST \
+    "http://localhost:8080/2015-03-31/functions/function/invocations" -d "$EVENT" || true
+echo
+
+# Stop the JVM gracefully; the archive is written as it exits
+docker exec "$CONTAINER" sh -c \
+    'for p in /proc/[0-9]*; do grep -qa "[/]bin/java" "$p/cmdline" 2>/dev/null && kill -TERM "${p#/proc/}"; done' || true
+
+for _ in $(seq 1 30); do
+    [ -s "$OUT_DIR/classes.jsa" ] && break
+    sleep 1
+done
+
+if [ ! -s "$OUT_DIR/classes.jsa" ]; then
+    echo "AppCDS archive was not written"
+    docker logs "$CONTAINER" 2>&1 | tail -20
+    exit 1
+fi
+echo "AppCDS archive: $OUT_DIR/classes.jsa ($(du -h "$OUT_DIR/classes.jsa" | cut -f1))"
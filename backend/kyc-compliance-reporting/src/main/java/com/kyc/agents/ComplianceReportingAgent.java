@@ -4,8 +4,15 @@ import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kyc.cache.CustomerState;
+import com.kyc.cache.CustomerStateCache;
 import com.kyc.model.KYCEvent;
+import com.kyc.metrics.StatusCounters;
 import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.AwsClients;
+import com.kyc.tracing.Span;
+import com.kyc.tracing.Tracer;
+import com.kyc.util.Env;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.core.sync.RequestBody;
@@ -40,16 +47,23 @@ public class ComplianceReportingAgent implements RequestHandler<Map<String, Obje
     
     private final DynamoDbClient dynamoDbClient;
     private final EventBridgeClient eventBridgeClient;
+    private final CustomerStateCache customerStateCache;
+    private final Tracer tracer;
     private final S3Client s3Client;
+    private final StatusCounters statusCounters;
     private final String tableName;
     private final String eventBusName;
     private final String documentBucket;
     
     public ComplianceReportingAgent() {
-        this.dynamoDbClient = DynamoDbClient.create();
-        this.eventBridgeClient = EventBridgeClient.create();
-        this.s3Client = S3Client.create();
+        this.dynamoDbClient = AwsClients.dynamoDb();
+        this.eventBridgeClient = AwsClients.eventBridge();
+        this.s3Client = AwsClients.s3();
+        this.statusCounters = new StatusCounters(
+            dynamoDbClient, System.getenv("COUNTERS_TABLE_NAME"), Env.getInt("COUNTER_SHARDS", 10));
         this.tableName = System.getenv("TABLE_NAME");
+        this.customerStateCache = CustomerStateCache.shared(dynamoDbClient, tableName);
+        this.tracer = Tracer.forService("ComplianceReportingAgent");
         this.eventBusName = System.getenv("EVENT_BUS_NAME");
         this.documentBucket = System.getenv("DOCUMENT_BUCKET");
     }
@@ -58,21 +72,43 @@ public class ComplianceReportingAgent implements RequestHandler<Map<String, Obje
     public KYCEvent handleRequest(Map<String, Object> input, Context context) {
         logger.info("ComplianceReportingAgent invoked: {}", input);
         
+        // Extract fraud result from previous step
+        Map<String, Object> fraudResult = extractFraudResult(input);
+        Span span = tracer.startSpan("ComplianceReporting", (String) fraudResult.get("traceparent"));
+        span.setAttribute("faas.invocation_id", context == null ? null : context.getAwsRequestId());
+        
         try {
-            // Extract fraud result from previous step
-            Map<String, Object> fraudResult = extractFraudResult(input);
             String customerId = (String) fraudResult.get("customerId");
             String documentUrl = (String) fraudResult.get("documentUrl");
             Boolean fraudDetected = (Boolean) fraudResult.get("fraudDetected");
+            span.setAttribute("kyc.customer_id", customerId);
             
-            logger.info("Processing compliance reporting for customer: {}", customerId);
+            logger.info("Processing compliance reporting for customer: {}, trace: {}",
+                customerId, span.getContext().getTraceId());
             
-            // Generate compliance report
-            String reportContent = generateComplianceReport(input, customerId);
-            String reportUrl = storeComplianceReport(customerId, reportContent);
+            // Load the report fragments persisted by each agent in one strongly consistent
+            // read, bypassing the cache since this is the final decision
+            CustomerState fragments;
+            try (Span load = span.startChild("ComplianceReporting.load", Span.Kind.CLIENT)) {
+                load.setAttribute("aws.dynamodb.consistent_read", true);
+                fragments = customerStateCache.getConsistent(customerId);
+            }
+            KYCEvent fraudCheck = fragments.getEvent("Fraud.Checked");
             
-            // Determine final KYC status
-            KYCStatus finalStatus = fraudDetected ? KYCStatus.FRAUD_DETECTED : KYCStatus.COMPLETED;
+            // Determine final KYC status. A re-scoring run may have flagged the customer
+            // after this workflow's fraud step, so the stored fraud check also counts
+            boolean flagged = Boolean.TRUE.equals(fraudDetected)
+                || (fraudCheck != null && fraudCheck.getKycStatus() == KYCStatus.FRAUD_DETECTED);
+            KYCStatus finalStatus = flagged ? KYCStatus.FRAUD_DETECTED : KYCStatus.COMPLETED;
+            span.setAttribute("kyc.status", finalStatus.name());
+            
+            // Generate compliance report
+            String reportUrl;
+            try (Span report = span.startChild("ComplianceReporting.report", Span.Kind.CLIENT)) {
+                String reportContent = generateComplianceReport(fragments, customerId, finalStatus);
+                reportUrl = storeComplianceReport(customerId, reportContent);
+                report.setAttribute("kyc.report_url", reportUrl);
+            }
             
             // Create KYC event
             KYCEvent event = KYCEvent.builder()
@@ -82,20 +118,37 @@ public class ComplianceReportingAgent implements RequestHandler<Map<String, Obje
                 .documentUrl(reportUrl)
                 .lastUpdated(Instant.now().toString())
                 .metadata(String.format("KYC process completed - Final status: %s", finalStatus))
+                .traceparent(span.getContext().toTraceparent())
                 .build();
             
             // Store final status in DynamoDB
-            storeToDynamoDB(event);
+            try (Span store = span.startChild("ComplianceReporting.store", Span.Kind.CLIENT)) {
+                store.setAttribute("aws.dynamodb.table_names", tableName);
+                storeToDynamoDB(event);
+            }
+            
+            // Update pre-aggregated dashboard counters. Every execution started for one
+            // upload shares its trace ID, so retries and duplicate executions count once
+            try (Span counters = span.startChild("ComplianceReporting.counters", Span.Kind.CLIENT)) {
+                counters.setAttribute("kyc.counted", statusCounters.record(customerId, span.getContext().getTraceId(),
+                    finalStatus, fraudCheck == null ? null : fraudCheck.getFraudScore(), Instant.now()));
+            }
             
             // Publish completion event to EventBridge
-            publishEvent(event);
+            try (Span publish = span.startChild("ComplianceReporting.publish", Span.Kind.CLIENT)) {
+                publish.setAttribute("messaging.destination.name", eventBusName);
+                publishEvent(event);
+            }
             
             logger.info("Compliance reporting completed for customer: {} - Status: {}", customerId, finalStatus);
             return event;
             
         } catch (Exception e) {
+            span.recordError(e);
             logger.error("Error in ComplianceReportingAgent", e);
             throw new RuntimeException("Compliance reporting failed", e);
+        } finally {
+            span.end();
         }
     }
     
@@ -103,13 +156,16 @@ public class ComplianceReportingAgent implements RequestHandler<Map<String, Obje
         // Extract from Step Functions input
         if (input.containsKey("fraudResult")) {
             Map<String, Object> fraudResult = (Map<String, Object>) input.get("fraudResult");
-            return (Map<String, Object>) fraudResult.get("Payload");
+            // Lambda invoke results nest the agent output under Payload; selected results are flat
+            return fraudResult.containsKey("Payload")
+                ? (Map<String, Object>) fraudResult.get("Payload")
+                : fraudResult;
         }
         return input;
     }
     
-    private String generateComplianceReport(Map<String, Object> workflowData, String customerId) {
-        // Generate comprehensive compliance report
+    private String generateComplianceReport(CustomerState fragments, String customerId, KYCStatus finalStatus) {
+        // Generate comprehensive compliance report from the persisted step results
         StringBuilder report = new StringBuilder();
         report.append("KYC COMPLIANCE REPORT\n");
         report.append("=".repeat(50)).append("\n\n");
@@ -119,38 +175,39 @@ public class ComplianceReportingAgent implements RequestHandler<Map<String, Obje
         // Document Validation Summary
         report.append("1. DOCUMENT VALIDATION\n");
         report.append("-".repeat(50)).append("\n");
-        if (workflowData.containsKey("validationResult")) {
-            Map<String, Object> validation = (Map<String, Object>) workflowData.get("validationResult");
-            Map<String, Object> payload = (Map<String, Object>) validation.get("Payload");
-            report.append("Status: ").append(payload.get("isValid")).append("\n");
-            report.append("Score: ").append(payload.get("verificationScore")).append("\n\n");
+        KYCEvent validation = fragments.getEvent("Document.Validated");
+        if (validation != null) {
+            report.append("Status: ").append(validation.getIsValid()).append("\n");
+            report.append("Score: ").append(validation.getVerificationScore()).append("\n");
+            report.append("Details: ").append(validation.getMetadata()).append("\n\n");
         }
         
         // Identity Verification Summary
         report.append("2. IDENTITY VERIFICATION\n");
         report.append("-".repeat(50)).append("\n");
-        if (workflowData.containsKey("verificationResult")) {
-            Map<String, Object> verification = (Map<String, Object>) workflowData.get("verificationResult");
-            Map<String, Object> payload = (Map<String, Object>) verification.get("Payload");
-            report.append("Status: ").append(payload.get("isVerified")).append("\n");
-            report.append("Score: ").append(payload.get("verificationScore")).append("\n\n");
+        KYCEvent verification = fragments.getEvent("Identity.Verified");
+        if (verification != null) {
+            report.append("Status: ").append(verification.getIsVerified()).append("\n");
+            report.append("Score: ").append(verification.getVerificationScore()).append("\n");
+            report.append("Details: ").append(verification.getMetadata()).append("\n\n");
         }
         
         // Fraud Detection Summary
         report.append("3. FRAUD DETECTION\n");
         report.append("-".repeat(50)).append("\n");
-        if (workflowData.containsKey("fraudResult")) {
-            Map<String, Object> fraud = (Map<String, Object>) workflowData.get("fraudResult");
-            Map<String, Object> payload = (Map<String, Object>) fraud.get("Payload");
-            report.append("Fraud Detected: ").append(payload.get("fraudDetected")).append("\n");
-            report.append("Risk Score: ").append(payload.get("fraudScore")).append("\n\n");
+        KYCEvent fraud = fragments.getEvent("Fraud.Checked");
+        if (fraud != null) {
+            report.append("Fraud Detected: ").append(fraud.getFraudDetected()).append("\n");
+            report.append("Risk Score: ").append(fraud.getFraudScore()).append("\n");
+            report.append("Details: ").append(fraud.getMetadata()).append("\n\n");
         }
         
         // Final Recommendation
         report.append("4. FINAL RECOMMENDATION\n");
         report.append("-".repeat(50)).append("\n");
-        report.append("KYC Process: COMPLETED\n");
-        report.append("Compliance Status: APPROVED\n\n");
+        report.append("KYC Process: ").append(finalStatus).append("\n");
+        report.append("Compliance Status: ")
+            .append(finalStatus == KYCStatus.COMPLETED ? "APPROVED" : "REJECTED").append("\n\n");
         
         report.append("=".repeat(50)).append("\n");
         report.append("End of Report\n");
@@ -197,6 +254,7 @@ public class ComplianceReportingAgent implements RequestHandler<Map<String, Obje
             .build();
         
         dynamoDbClient.putItem(request);
+        customerStateCache.applyWrite(event);
         logger.info("Stored event to DynamoDB: {}", event.getEventType());
     }
     
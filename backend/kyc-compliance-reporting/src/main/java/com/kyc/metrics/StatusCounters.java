@@ -0,0 +1,189 @@
+package com.kyc.metrics;
+
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.Put;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StatusCounters
+ *
+ * Pre-aggregated KYC outcome counters for the dashboard, kept in the
+ * KYCCounters table:
+ * - One item per period and shard: {@code ALL}, {@code DAY#2024-06-01},
+ *   {@code HOUR#2024-06-01T13}
+ * - Each item holds {@code total}, {@code status_<KYCStatus>} and
+ *   {@code fraud_0}..{@code fraud_9} fraud-score histogram buckets
+ * - Increments use atomic ADD on a random shard to avoid a hot partition
+ * - Each decision is counted once: the increments are written in one
+ *   transaction with a {@code DECISION#<customerId>#<workflowId>} marker item
+ *   that must not already exist, so Lambda retries and EventBridge
+ *   redeliveries are ignored
+ * - Transactions cancelled by a conflict with a concurrent write to the same
+ *   shard are retried with jittered backoff
+ *
+ * The API's {@code /stats} route reads a period with a single Query on its
+ * key, summing across shards.
+ */
+public class StatusCounters {
+    private static final Logger logger = LoggerFactory.getLogger(StatusCounters.class);
+
+    public static final int FRAUD_BUCKETS = 10;
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+    private static final long HOURLY_RETENTION_DAYS = 90;
+    private static final long DECISION_RETENTION_DAYS = 7;
+    private static final int MAX_ATTEMPTS = Env.getInt("COUNTER_MAX_ATTEMPTS", 5);
+    private static final long BASE_BACKOFF_MS = Env.getLong("COUNTER_BASE_BACKOFF_MS", 20);
+    private static final long MAX_BACKOFF_MS = Env.getLong("COUNTER_MAX_BACKOFF_MS", 500);
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final int shards;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public StatusCounters(DynamoDbClient dynamoDbClient, String tableName, int shards) {
+        this(dynamoDbClient, tableName, shards, MAX_ATTEMPTS, BASE_BACKOFF_MS, MAX_BACKOFF_MS);
+    }
+
+    StatusCounters(DynamoDbClient dynamoDbClient, String tableName, int shards,
+                   int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.shards = shards;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * Counts a final KYC decision once per customer and workflow. Failures are
+     * logged and swallowed so that counters never fail the workflow.
+     *
+     * @param workflowId identifies the workflow run that decided, e.g. its trace ID
+     * @return true if the decision was counted, false if it was already counted
+     *         or the update failed
+     */
+    public boolean record(String customerId, String workflowId, KYCStatus status, Double fraudScore,
+                          Instant decidedAt) {
+        if (tableName == null) {
+            return false;
+        }
+        ZonedDateTime time = decidedAt.atZone(ZoneOffset.UTC);
+        String day = time.toLocalDate().toString();
+        String hour = HOUR_FORMAT.format(time);
+        long hourExpiry = decidedAt.plus(HOURLY_RETENTION_DAYS, ChronoUnit.DAYS).getEpochSecond();
+        long decisionExpiry = Instant.now().plus(DECISION_RETENTION_DAYS, ChronoUnit.DAYS).getEpochSecond();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Shards are picked again on every attempt, so a retry usually avoids the conflicting item
+                dynamoDbClient.transactWriteItems(TransactWriteItemsRequest.builder()
+                    .transactItems(
+                        decisionMarker(customerId, workflowId, status, decisionExpiry),
+                        increment("ALL", status, fraudScore, null),
+                        increment("DAY#" + day, status, fraudScore, null),
+                        increment("HOUR#" + hour, status, fraudScore, hourExpiry))
+                    .build());
+                return true;
+            } catch (TransactionCanceledException e) {
+                List<CancellationReason> reasons = e.cancellationReasons();
+                if (!reasons.isEmpty() && "ConditionalCheckFailed".equals(reasons.get(0).code())) {
+                    logger.info("Decision for customer {} in workflow {} already counted", customerId, workflowId);
+                    return false;
+                }
+                if (!hasReason(reasons, "TransactionConflict") || attempt >= maxAttempts) {
+                    logger.error("Failed to update status counters after {} attempts", attempt, e);
+                    return false;
+                }
+                long backoff = ThreadLocalRandom.current().nextLong(
+                    Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 16)) + 1);
+                logger.warn("Status counter update for customer {} conflicted; retrying in {} ms (attempt {})",
+                    customerId, backoff, attempt);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    logger.error("Interrupted while retrying status counters", e);
+                    return false;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to update status counters", e);
+                return false;
+            }
+        }
+    }
+
+    public static int fraudBucket(double fraudScore) {
+        return Math.max(0, Math.min(FRAUD_BUCKETS - 1, (int) (fraudScore * FRAUD_BUCKETS)));
+    }
+
+    private static boolean hasReason(List<CancellationReason> reasons, String code) {
+        for (CancellationReason reason : reasons) {
+            if (code.equals(reason.code())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TransactWriteItem decisionMarker(String customerId, String workflowId, KYCStatus status, long expiresAt) {
+        return TransactWriteItem.builder().put(Put.builder()
+            .tableName(tableName)
+            .item(Map.of(
+                "counterKey", AttributeValue.builder().s("DECISION#" + customerId + "#" + workflowId).build(),
+                "shard", AttributeValue.builder().n("0").build(),
+                "kycStatus", AttributeValue.builder().s(status.name()).build(),
+                "expiresAt", AttributeValue.builder().n(String.valueOf(expiresAt)).build()))
+            .conditionExpression("attribute_not_exists(counterKey)")
+            .build()).build();
+    }
+
+    private TransactWriteItem increment(String counterKey, KYCStatus status, Double fraudScore, Long expiresAt) {
+        Map<String, String> names = new HashMap<>();
+        Map<String, AttributeValue> values = new HashMap<>();
+        StringBuilder expression = new StringBuilder("ADD #total :one, #status :one");
+        names.put("#total", "total");
+        names.put("#status", "status_" + status.name());
+        values.put(":one", AttributeValue.builder().n("1").build());
+
+        if (fraudScore != null) {
+            expression.append(", #fraud :one");
+            names.put("#fraud", "fraud_" + fraudBucket(fraudScore));
+        }
+        if (expiresAt != null) {
+            expression.append(" SET #expiresAt = :expiresAt");
+            names.put("#expiresAt", "expiresAt");
+            values.put(":expiresAt", AttributeValue.builder().n(expiresAt.toString()).build());
+        }
+
+        return TransactWriteItem.builder().update(Update.builder()
+            .tableName(tableName)
+            .key(Map.of(
+                "counterKey", AttributeValue.builder().s(counterKey).build(),
+                "shard", AttributeValue.builder().n(String.valueOf(ThreadLocalRandom.current().nextInt(shards))).build()))
+            .updateExpression(expression.toString())
+            .expressionAttributeNames(names)
+            .expressionAttributeValues(values)
+            .build()).build();
+    }
+}
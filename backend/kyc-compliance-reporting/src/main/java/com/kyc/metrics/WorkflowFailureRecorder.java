@@ -0,0 +1,81 @@
+package com.kyc.metrics;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.AwsClients;
+import com.kyc.tracing.TraceContext;
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * WorkflowFailureRecorder
+ *
+ * Counts KYC workflows that end without a compliance decision in the
+ * dashboard counters:
+ * - Triggered by the Step Functions "Execution Status Change" event for
+ *   FAILED, TIMED_OUT and ABORTED executions of the KYC workflow
+ * - Executions that end in the workflow's FraudDetected state (error
+ *   {@code FraudError}) are counted as {@code FRAUD_DETECTED}, every other
+ *   ending as {@code FAILED}
+ * - Reads the customer and trace from the execution input (the
+ *   Document.Validated event)
+ * - Uses the trace ID as the workflow ID, as ComplianceReportingAgent does,
+ *   falling back to the execution name
+ */
+public class WorkflowFailureRecorder implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowFailureRecorder.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    // Error of the FraudDetected Fail state in infrastructure/statemachine/kyc-workflow.asl.json
+    static final String FRAUD_ERROR = "FraudError";
+
+    private final StatusCounters statusCounters;
+
+    public WorkflowFailureRecorder() {
+        this(new StatusCounters(
+            AwsClients.dynamoDb(), System.getenv("COUNTERS_TABLE_NAME"), Env.getInt("COUNTER_SHARDS", 10)));
+    }
+
+    WorkflowFailureRecorder(StatusCounters statusCounters) {
+        this.statusCounters = statusCounters;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> input, Context context) {
+        JsonNode detail = objectMapper.valueToTree(input).path("detail");
+        String executionName = detail.path("name").asText(null);
+        String status = detail.path("status").asText();
+        logger.info("KYC workflow execution {} ended with status {}", executionName, status);
+
+        // The execution input is the Document.Validated event, or the KYC event itself when started directly
+        JsonNode workflowInput;
+        try {
+            workflowInput = objectMapper.readTree(detail.path("input").asText("{}"));
+        } catch (Exception e) {
+            throw new RuntimeException("Unreadable execution input for " + executionName, e);
+        }
+        JsonNode kycEvent = workflowInput.has("detail") ? workflowInput.path("detail") : workflowInput;
+        String customerId = kycEvent.path("customerId").asText(null);
+        if (customerId == null) {
+            logger.warn("Execution {} has no customerId in its input; not counted", executionName);
+            return Map.of("counted", false);
+        }
+
+        TraceContext trace = TraceContext.parse(kycEvent.path("traceparent").asText(null));
+        String workflowId = trace != null ? trace.getTraceId() : executionName;
+        Instant stoppedAt = detail.hasNonNull("stopDate")
+            ? Instant.ofEpochMilli(detail.path("stopDate").asLong()) : Instant.now();
+
+        KYCStatus outcome = "FAILED".equals(status) && FRAUD_ERROR.equals(detail.path("error").asText(null))
+            ? KYCStatus.FRAUD_DETECTED : KYCStatus.FAILED;
+        boolean counted = statusCounters.record(customerId, workflowId, outcome, null, stoppedAt);
+        logger.info("Workflow for customer {} ({}) counted as {}: {}", customerId, status, outcome, counted);
+        return Map.of("counted", counted);
+    }
+}
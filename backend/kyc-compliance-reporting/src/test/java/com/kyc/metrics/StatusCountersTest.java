@@ -0,0 +1,98 @@
+package com.kyc.metrics;
+
+import com.kyc.model.KYCEvent.KYCStatus;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatusCountersTest {
+    private static final Instant DECIDED_AT = Instant.parse("2024-06-01T13:45:00Z");
+
+    private final StubDynamoDb dynamoDb = new StubDynamoDb();
+    private final StatusCounters counters = new StatusCounters(dynamoDb, "KYCCounters", 4, 3, 1, 2);
+
+    @Test
+    void writesTheMarkerAndEveryPeriodInOneTransaction() {
+        assertTrue(counters.record("customer-1", "trace-1", KYCStatus.COMPLETED, 0.42, DECIDED_AT));
+
+        TransactWriteItemsRequest request = dynamoDb.requests.get(0);
+        assertEquals(4, request.transactItems().size());
+        assertEquals("DECISION#customer-1#trace-1",
+            request.transactItems().get(0).put().item().get("counterKey").s());
+        assertEquals("HOUR#2024-06-01T13", request.transactItems().get(3).update().key().get("counterKey").s());
+        assertEquals("fraud_4", request.transactItems().get(1).update().expressionAttributeNames().get("#fraud"));
+    }
+
+    @Test
+    void retriesTransactionConflicts() {
+        dynamoDb.failures.add(cancelled("None", "TransactionConflict", "None", "None"));
+        dynamoDb.failures.add(cancelled("None", "None", "TransactionConflict", "None"));
+
+        assertTrue(counters.record("customer-1", "trace-1", KYCStatus.COMPLETED, null, DECIDED_AT));
+        assertEquals(3, dynamoDb.requests.size());
+    }
+
+    @Test
+    void givesUpAfterTheLastAttempt() {
+        for (int i = 0; i < 3; i++) {
+            dynamoDb.failures.add(cancelled("None", "TransactionConflict", "None", "None"));
+        }
+        dynamoDb.failures.add(null);
+
+        assertFalse(counters.record("customer-1", "trace-1", KYCStatus.COMPLETED, null, DECIDED_AT));
+        assertEquals(3, dynamoDb.requests.size());
+    }
+
+    @Test
+    void doesNotRetryADecisionThatWasAlreadyCounted() {
+        dynamoDb.failures.add(cancelled("ConditionalCheckFailed", "None", "None", "None"));
+
+        assertFalse(counters.record("customer-1", "trace-1", KYCStatus.COMPLETED, null, DECIDED_AT));
+        assertEquals(1, dynamoDb.requests.size());
+    }
+
+    static TransactionCanceledException cancelled(String... codes) {
+        List<CancellationReason> reasons = new ArrayList<>();
+        for (String code : codes) {
+            reasons.add(CancellationReason.builder().code(code).build());
+        }
+        return TransactionCanceledException.builder().message("cancelled").cancellationReasons(reasons).build();
+    }
+
+    static class StubDynamoDb implements DynamoDbClient {
+        final List<TransactWriteItemsRequest> requests = new ArrayList<>();
+        final List<TransactionCanceledException> failures = new ArrayList<>();
+
+        @Override
+        public TransactWriteItemsResponse transactWriteItems(TransactWriteItemsRequest request) {
+            requests.add(request);
+            if (!failures.isEmpty()) {
+                TransactionCanceledException failure = failures.remove(0);
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+            return TransactWriteItemsResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.kyc.metrics;
+
+import com.kyc.metrics.StatusCountersTest.StubDynamoDb;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorkflowFailureRecorderTest {
+    private static final String INPUT =
+        "{\"detail\":{\"customerId\":\"customer-1\",\"documentUrl\":\"s3://kyc-documents/customer-1/id.pdf\","
+            + "\"traceparent\":\"00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01\"}}";
+
+    private final StubDynamoDb dynamoDb = new StubDynamoDb();
+    private final WorkflowFailureRecorder recorder =
+        new WorkflowFailureRecorder(new StatusCounters(dynamoDb, "KYCCounters", 4, 3, 1, 2));
+
+    @Test
+    void countsTheFraudBranchAsFraudDetected() {
+        recorder.handleRequest(statusChange("FAILED", "FraudError"), null);
+
+        assertEquals("status_FRAUD_DETECTED", countedStatus());
+        assertEquals("DECISION#customer-1#4bf92f3577b34da6a3ce929d0e0e4736",
+            dynamoDb.requests.get(0).transactItems().get(0).put().item().get("counterKey").s());
+    }
+
+    @Test
+    void countsOtherFailuresAsFailed() {
+        recorder.handleRequest(statusChange("FAILED", "FraudCheckError"), null);
+        recorder.handleRequest(statusChange("TIMED_OUT", null), null);
+
+        assertEquals("status_FAILED", countedStatus());
+        assertEquals("status_FAILED", dynamoDb.requests.get(1).transactItems().get(1).update()
+            .expressionAttributeNames().get("#status"));
+    }
+
+    private String countedStatus() {
+        return dynamoDb.requests.get(0).transactItems().get(1).update().expressionAttributeNames().get("#status");
+    }
+
+    private static Map<String, Object> statusChange(String status, String error) {
+        Map<String, Object> detail = new HashMap<>();
+        detail.put("name", "execution-1");
+        detail.put("status", status);
+        detail.put("input", INPUT);
+        detail.put("stopDate", 1717249500000L);
+        if (error != null) {
+            detail.put("error", error);
+            detail.put("cause", "Fraud indicators detected");
+        }
+        return Map.of("detail-type", "Step Functions Execution Status Change", "detail", detail);
+    }
+}
@@ -0,0 +1,110 @@
+package com.kyc.cache;
+
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of everything stored for one customer in KYCRecords: the latest
+ * event for each workflow step, keyed by event type. Instances are immutable
+ * so they can be shared by concurrent readers of the cache.
+ */
+public final class CustomerState {
+    private final String customerId;
+    private final Map<String, KYCEvent> eventsByType;
+
+    private CustomerState(String customerId, Map<String, KYCEvent> eventsByType) {
+        this.customerId = customerId;
+        this.eventsByType = Collections.unmodifiableMap(eventsByType);
+    }
+
+    public static CustomerState fromItems(String customerId, List<Map<String, AttributeValue>> items) {
+        Map<String, KYCEvent> events = new HashMap<>();
+        for (Map<String, AttributeValue> item : items) {
+            KYCEvent event = fromItem(item);
+            events.put(event.getEventType(), event);
+        }
+        return new CustomerState(customerId, events);
+    }
+
+    /**
+     * Returns a copy with the given event recorded as the latest for its step.
+     */
+    public CustomerState withEvent(KYCEvent event) {
+        Map<String, KYCEvent> events = new HashMap<>(eventsByType);
+        events.put(event.getEventType(), event);
+        return new CustomerState(customerId, events);
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public KYCEvent getEvent(String eventType) {
+        return eventsByType.get(eventType);
+    }
+
+    public int getEventCount() {
+        return eventsByType.size();
+    }
+
+    /**
+     * @return the most recently updated event, or null if nothing is stored
+     */
+    public KYCEvent getLatestEvent() {
+        KYCEvent latest = null;
+        for (KYCEvent event : eventsByType.values()) {
+            if (latest == null || compareUpdated(event, latest) > 0) {
+                latest = event;
+            }
+        }
+        return latest;
+    }
+
+    public KYCStatus getLatestStatus() {
+        KYCEvent latest = getLatestEvent();
+        return latest == null ? null : latest.getKycStatus();
+    }
+
+    private static int compareUpdated(KYCEvent a, KYCEvent b) {
+        String left = a.getLastUpdated() == null ? "" : a.getLastUpdated();
+        String right = b.getLastUpdated() == null ? "" : b.getLastUpdated();
+        return left.compareTo(right);
+    }
+
+    private static KYCEvent fromItem(Map<String, AttributeValue> item) {
+        return KYCEvent.builder()
+            .customerId(string(item, "customerId"))
+            .eventType(string(item, "eventType"))
+            .kycStatus(item.containsKey("kycStatus") ? KYCStatus.valueOf(item.get("kycStatus").s()) : null)
+            .documentUrl(string(item, "documentUrl"))
+            .verificationScore(number(item, "verificationScore"))
+            .fraudScore(number(item, "fraudScore"))
+            .lastUpdated(string(item, "lastUpdated"))
+            .metadata(string(item, "metadata"))
+            .isValid(bool(item, "isValid"))
+            .isVerified(bool(item, "isVerified"))
+            .fraudDetected(bool(item, "fraudDetected"))
+            .build();
+    }
+
+    private static String string(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null ? null : value.s();
+    }
+
+    private static Boolean bool(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null ? null : value.bool();
+    }
+
+    private static Double number(Map<String, AttributeValue> item, String name) {
+        AttributeValue value = item.get(name);
+        return value == null || value.n() == null ? null : Double.valueOf(value.n());
+    }
+}
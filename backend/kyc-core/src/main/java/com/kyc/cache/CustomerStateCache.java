@@ -0,0 +1,122 @@
+package com.kyc.cache;
+
+import com.kyc.model.KYCEvent;
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CustomerStateCache
+ *
+ * Warm-container cache of recent customer state from KYCRecords, held in
+ * static scope so it survives across invocations of the same container:
+ * - Read-through: a miss loads the customer's items with one Query
+ * - Write-through: agents apply every event they store, keeping cached
+ *   entries current without another read
+ * - Strongly consistent bypass: {@link #getConsistent} always reads the table
+ *   with ConsistentRead and refreshes the entry; used for final decisions
+ *
+ * Capacity is derived from the Lambda memory size (CACHE_MEMORY_FRACTION of
+ * AWS_LAMBDA_FUNCTION_MEMORY_SIZE at an estimated CACHE_ENTRY_BYTES per
+ * customer) unless CACHE_MAX_ENTRIES is set. Entries expire after
+ * CACHE_TTL_SECONDS. Hit rate is logged every 100 lookups.
+ *
+ * There is one shared cache per table; it loads through the client of the
+ * first caller for that table.
+ */
+public class CustomerStateCache {
+    private static final Logger logger = LoggerFactory.getLogger(CustomerStateCache.class);
+    private static final int STATS_LOG_INTERVAL = 100;
+
+    private static final Map<String, CustomerStateCache> shared = new HashMap<>();
+
+    private final DynamoDbClient dynamoDbClient;
+    private final String tableName;
+    private final WTinyLfuCache<String, CustomerState> cache;
+    private final AtomicLong lookups = new AtomicLong();
+
+    public CustomerStateCache(DynamoDbClient dynamoDbClient, String tableName, int maximumSize, long ttlMillis) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.tableName = tableName;
+        this.cache = new WTinyLfuCache<>(maximumSize, ttlMillis);
+    }
+
+    /**
+     * Returns the container-wide cache of the table, creating it on first use.
+     */
+    public static synchronized CustomerStateCache shared(DynamoDbClient dynamoDbClient, String tableName) {
+        return shared.computeIfAbsent(tableName, table -> {
+            int maximumSize = Env.getInt("CACHE_MAX_ENTRIES", defaultMaximumSize());
+            logger.info("Customer state cache for {} sized for {} entries", table, maximumSize);
+            return new CustomerStateCache(dynamoDbClient, table, maximumSize,
+                Env.getLong("CACHE_TTL_SECONDS", 300) * 1000);
+        });
+    }
+
+    /**
+     * Returns cached state, loading it from DynamoDB on a miss.
+     */
+    public CustomerState get(String customerId) {
+        CustomerState state = cache.get(customerId);
+        if (state == null) {
+            state = load(customerId, false);
+            cache.put(customerId, state);
+        }
+        logStats();
+        return state;
+    }
+
+    /**
+     * Reads the customer's state with a strongly consistent Query, bypassing
+     * the cached copy, and refreshes the cache with the result.
+     */
+    public CustomerState getConsistent(String customerId) {
+        CustomerState state = load(customerId, true);
+        cache.put(customerId, state);
+        return state;
+    }
+
+    /**
+     * Applies a stored event to the cached state. Customers not in the cache
+     * are left alone so a partial state is never cached.
+     */
+    public void applyWrite(KYCEvent event) {
+        cache.computeIfPresent(event.getCustomerId(), state -> state.withEvent(event));
+    }
+
+    public double getHitRate() {
+        return cache.getHitRate();
+    }
+
+    private CustomerState load(String customerId, boolean consistentRead) {
+        QueryRequest request = QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression("customerId = :customerId")
+            .expressionAttributeValues(Map.of(":customerId", AttributeValue.builder().s(customerId).build()))
+            .consistentRead(consistentRead)
+            .build();
+        return CustomerState.fromItems(customerId, dynamoDbClient.query(request).items());
+    }
+
+    private void logStats() {
+        if (lookups.incrementAndGet() % STATS_LOG_INTERVAL == 0) {
+            logger.info("Customer state cache - size: {}, hits: {}, misses: {}, evictions: {}, hit rate: {}",
+                cache.size(), cache.getHits(), cache.getMisses(), cache.getEvictions(),
+                String.format("%.2f", cache.getHitRate()));
+        }
+    }
+
+    private static int defaultMaximumSize() {
+        long memoryMb = Env.getLong("AWS_LAMBDA_FUNCTION_MEMORY_SIZE", 512);
+        double fraction = Env.getDouble("CACHE_MEMORY_FRACTION", 0.05);
+        long entryBytes = Env.getLong("CACHE_ENTRY_BYTES", 4096);
+        return (int) Math.max(100, memoryMb * 1024 * 1024 * fraction / entryBytes);
+    }
+}
@@ -0,0 +1,70 @@
+package com.kyc.cache;
+
+/**
+ * FrequencySketch
+ *
+ * Count-min sketch of recent access frequency used by {@link WTinyLfuCache}
+ * to decide admission. Counters saturate at 15 and are all halved once the
+ * number of recorded accesses reaches the sample size, so old popularity
+ * fades over time.
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = { 0x97cb3127, 0xb1a5ae31, 0x2f6b7f95, 0xe3779b97 };
+
+    private final int[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maximumSize) {
+        int width = Integer.highestOneBit(Math.max(16, maximumSize) * 2 - 1);
+        this.table = new int[width * DEPTH];
+        this.mask = width - 1;
+        this.sampleSize = Math.max(10 * maximumSize, 16);
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = indexOf(hash, row);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table[indexOf(hash, row)]);
+        }
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * SEEDS[row];
+        h ^= h >>> 17;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,257 @@
+package com.kyc.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * WTinyLfuCache
+ *
+ * Bounded in-memory cache with W-TinyLFU eviction and per-entry TTL:
+ * - New entries enter a small LRU admission window (1% of capacity)
+ * - Entries leaving the window compete with the main region's eviction
+ *   candidate and are only admitted if they are accessed more often,
+ *   according to a {@link FrequencySketch}
+ * - The main region is a segmented LRU: entries hit again while in
+ *   probation are promoted to the protected segment (80% of the main region)
+ * - Every lookup counts once towards a key's frequency; puts do not
+ * - Entries are kept in write order as well, so expired entries are
+ *   reclaimed from the head of that order on every operation instead of
+ *   waiting to be evicted
+ *
+ * This keeps frequently used entries resident under scan-like bursts of
+ * one-off keys. All operations are synchronized.
+ */
+public class WTinyLfuCache<K, V> {
+
+    enum Region {
+        WINDOW,
+        PROBATION,
+        PROTECTED
+    }
+
+    private static final class Node<V> {
+        V value;
+        long expiresAtNanos;
+        Region region;
+
+        Node(V value, long expiresAtNanos, Region region) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+            this.region = region;
+        }
+    }
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+    private final long ttlNanos;
+    private final FrequencySketch sketch;
+    private final LongSupplier nanoClock;
+
+    private final Map<K, Node<V>> nodes = new HashMap<>();
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> writeOrder = new LinkedHashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    public WTinyLfuCache(int maximumSize, long ttlMillis) {
+        this(maximumSize, ttlMillis, System::nanoTime);
+    }
+
+    WTinyLfuCache(int maximumSize, long ttlMillis, LongSupplier nanoClock) {
+        if (maximumSize < 2) {
+            throw new IllegalArgumentException("Cache size must be at least 2");
+        }
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - windowCapacity;
+        this.protectedCapacity = (int) (mainCapacity * 0.8);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.sketch = new FrequencySketch(maximumSize);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the cached value, or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        expireEntries();
+        sketch.increment(key);
+        Node<V> node = nodes.get(key);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        onHit(key, node);
+        return node.value;
+    }
+
+    /**
+     * Adds or replaces an entry. Does not count as an access: a value loaded
+     * after a miss was already counted by {@link #get}.
+     */
+    public synchronized void put(K key, V value) {
+        expireEntries();
+        long expiresAt = nanoClock.getAsLong() + ttlNanos;
+        Node<V> existing = nodes.get(key);
+        if (existing != null) {
+            existing.value = value;
+            renew(key, existing, expiresAt);
+            onHit(key, existing);
+            return;
+        }
+        Node<V> node = new Node<>(value, expiresAt, Region.WINDOW);
+        nodes.put(key, node);
+        writeOrder.put(key, node);
+        window.put(key, node);
+        if (window.size() > windowCapacity) {
+            evictFromWindow();
+        }
+    }
+
+    /**
+     * Replaces the value of a live entry and renews its TTL, without counting
+     * a lookup or affecting its frequency.
+     */
+    public synchronized void computeIfPresent(K key, UnaryOperator<V> update) {
+        expireEntries();
+        Node<V> node = nodes.get(key);
+        if (node != null) {
+            node.value = update.apply(node.value);
+            renew(key, node, nanoClock.getAsLong() + ttlNanos);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized int size() {
+        expireEntries();
+        return nodes.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    synchronized Region region(K key) {
+        Node<V> node = nodes.get(key);
+        return node == null ? null : node.region;
+    }
+
+    synchronized int frequency(K key) {
+        return sketch.frequency(key);
+    }
+
+    /**
+     * Removes expired entries. The TTL is the same for every entry and renewed
+     * on write, so the expired entries are always at the head of the write order.
+     */
+    private void expireEntries() {
+        long now = nanoClock.getAsLong();
+        Iterator<Map.Entry<K, Node<V>>> iterator = writeOrder.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Node<V>> oldest = iterator.next();
+            if (now - oldest.getValue().expiresAtNanos < 0) {
+                return;
+            }
+            iterator.remove();
+            removeFromRegion(oldest.getKey(), nodes.remove(oldest.getKey()));
+            expirations++;
+        }
+    }
+
+    private void renew(K key, Node<V> node, long expiresAtNanos) {
+        node.expiresAtNanos = expiresAtNanos;
+        writeOrder.remove(key);
+        writeOrder.put(key, node);
+    }
+
+    private void onHit(K key, Node<V> node) {
+        switch (node.region) {
+            case WINDOW -> window.get(key);
+            case PROBATION -> {
+                probation.remove(key);
+                node.region = Region.PROTECTED;
+                protectedSegment.put(key, node);
+                if (protectedSegment.size() > protectedCapacity) {
+                    Map.Entry<K, Node<V>> demoted = pollFirst(protectedSegment);
+                    demoted.getValue().region = Region.PROBATION;
+                    probation.put(demoted.getKey(), demoted.getValue());
+                }
+            }
+            case PROTECTED -> protectedSegment.get(key);
+        }
+    }
+
+    private void evictFromWindow() {
+        Map.Entry<K, Node<V>> candidate = pollFirst(window);
+        candidate.getValue().region = Region.PROBATION;
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        LinkedHashMap<K, Node<V>> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+        K victim = victimSegment.keySet().iterator().next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+            remove(victim);
+            probation.put(candidate.getKey(), candidate.getValue());
+        } else {
+            nodes.remove(candidate.getKey());
+            writeOrder.remove(candidate.getKey());
+        }
+        evictions++;
+    }
+
+    private void remove(K key) {
+        Node<V> node = nodes.remove(key);
+        if (node == null) {
+            return;
+        }
+        writeOrder.remove(key);
+        removeFromRegion(key, node);
+    }
+
+    private void removeFromRegion(K key, Node<V> node) {
+        switch (node.region) {
+            case WINDOW -> window.remove(key);
+            case PROBATION -> probation.remove(key);
+            case PROTECTED -> protectedSegment.remove(key);
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> pollFirst(LinkedHashMap<K, V> segment) {
+        Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+        Map.Entry<K, V> first = iterator.next();
+        Map.Entry<K, V> copy = Map.entry(first.getKey(), first.getValue());
+        iterator.remove();
+        return copy;
+    }
+}
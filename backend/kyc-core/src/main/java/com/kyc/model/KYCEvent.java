@@ -36,6 +36,10 @@ public class KYCEvent {
     @JsonProperty("fraudDetected")
     private Boolean fraudDetected;
     
+    // W3C trace context of the step that produced this event
+    @JsonProperty("traceparent")
+    private String traceparent;
+    
     public enum KYCStatus {
         PENDING,
         VALIDATED,
@@ -111,6 +115,11 @@ public class KYCEvent {
             return this;
         }
         
+        public Builder traceparent(String traceparent) {
+            event.traceparent = traceparent;
+            return this;
+        }
+        
         public KYCEvent build() {
             return event;
         }
@@ -204,4 +213,12 @@ public class KYCEvent {
     public void setFraudDetected(Boolean fraudDetected) {
         this.fraudDetected = fraudDetected;
     }
+    
+    public String getTraceparent() {
+        return traceparent;
+    }
+    
+    public void setTraceparent(String traceparent) {
+        this.traceparent = traceparent;
+    }
 }
@@ -0,0 +1,180 @@
+package com.kyc.resilience;
+
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * AdaptiveLimiter
+ *
+ * AIMD concurrency limiter for calls to one downstream AWS service:
+ * - Additive increase of the in-flight limit as calls succeed
+ * - Multiplicative decrease when the service signals throttling
+ * - Token-bucket pacing while the limit is pinned at its floor after a throttle
+ *
+ * Limiters are registered per service name in static scope, so every client
+ * in a warm container shares the same view of throttling for that service.
+ */
+public class AdaptiveLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveLimiter.class);
+    private static final Map<String, AdaptiveLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long acquireTimeoutMillis;
+    private final long fallbackWindowNanos;
+    private final TokenBucket fallbackBucket;
+    private final LongSupplier nanoClock;
+
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder throttleCount = new LongAdder();
+
+    private double limit;
+    private int inFlight;
+    private long lastThrottleNanos;
+    private boolean throttledRecently;
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                           long acquireTimeoutMillis, long fallbackWindowMillis, TokenBucket fallbackBucket) {
+        this(name, initialLimit, minLimit, maxLimit, backoffRatio, acquireTimeoutMillis, fallbackWindowMillis,
+            fallbackBucket, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic time source for the fallback window, replaceable for tests
+     */
+    AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                    long acquireTimeoutMillis, long fallbackWindowMillis, TokenBucket fallbackBucket,
+                    LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid limiter configuration for " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.fallbackWindowNanos = TimeUnit.MILLISECONDS.toNanos(fallbackWindowMillis);
+        this.fallbackBucket = fallbackBucket;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Returns the shared limiter for a service, creating it from environment configuration
+     * (LIMITER_INITIAL, LIMITER_MIN, LIMITER_MAX, LIMITER_BACKOFF_RATIO, LIMITER_FALLBACK_RPS).
+     */
+    public static AdaptiveLimiter forService(String service) {
+        return LIMITERS.computeIfAbsent(service, s -> new AdaptiveLimiter(
+            s,
+            Env.getInt("LIMITER_INITIAL", 16),
+            Env.getInt("LIMITER_MIN", 1),
+            Env.getInt("LIMITER_MAX", 64),
+            Env.getDouble("LIMITER_BACKOFF_RATIO", 0.5),
+            Env.getLong("LIMITER_ACQUIRE_TIMEOUT_MS", 10_000),
+            Env.getLong("LIMITER_FALLBACK_WINDOW_MS", 5_000),
+            new TokenBucket(Env.getDouble("LIMITER_FALLBACK_RPS", 10), Env.getDouble("LIMITER_FALLBACK_BURST", 5))));
+    }
+
+    /**
+     * Blocks until a call slot is free. While the service is throttling at the
+     * minimum limit, callers are additionally paced by the fallback token bucket.
+     *
+     * @throws LimiterTimeoutException if no slot frees up within the acquire timeout
+     */
+    public void acquire() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        boolean paced;
+        synchronized (this) {
+            while (inFlight >= (int) limit) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new LimiterTimeoutException(String.format(
+                        "Timed out waiting for %s capacity (limit %d)", name, (int) limit));
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            inFlight++;
+            paced = inFallback();
+        }
+        if (paced) {
+            try {
+                fallbackBucket.acquire();
+            } catch (InterruptedException e) {
+                release();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot after a successful (non-throttled) call and grows the limit.
+     */
+    public synchronized void onSuccess() {
+        successCount.increment();
+        limit = Math.min(maxLimit, limit + 1.0 / limit);
+        release();
+    }
+
+    /**
+     * Releases a slot after a throttled call and shrinks the limit.
+     */
+    public synchronized void onThrottle() {
+        throttleCount.increment();
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastThrottleNanos = nanoClock.getAsLong();
+        throttledRecently = true;
+        if ((int) previous != (int) limit) {
+            logger.warn("{} throttled - concurrency limit reduced from {} to {}", name, (int) previous, (int) limit);
+        }
+        release();
+    }
+
+    /**
+     * Releases a slot after a call that failed for reasons other than throttling.
+     */
+    public synchronized void release() {
+        inFlight = Math.max(0, inFlight - 1);
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public long getSuccessCount() {
+        return successCount.sum();
+    }
+
+    public long getThrottleCount() {
+        return throttleCount.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private boolean inFallback() {
+        if (!throttledRecently) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - lastThrottleNanos > fallbackWindowNanos) {
+            throttledRecently = false;
+            return false;
+        }
+        return limit <= minLimit;
+    }
+}
@@ -0,0 +1,184 @@
+package com.kyc.resilience;
+
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.conditions.RetryCondition;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AwsClients
+ *
+ * Creates the DynamoDB, EventBridge and S3 clients used by the agents, wrapped
+ * so that every service call:
+ * - Passes through the shared {@link AdaptiveLimiter} for that service
+ * - Is retried on its own with jittered backoff when throttled
+ * - Including each page request issued by a {@code *Paginator} iterable
+ *
+ * The SDK's built-in retries are kept for transient errors but no longer retry
+ * throttling, so only the throttled call is retried here instead of failing the
+ * Lambda and having Step Functions re-run the whole agent.
+ */
+public final class AwsClients {
+    private static final Logger logger = LoggerFactory.getLogger(AwsClients.class);
+
+    private static final int MAX_ATTEMPTS = Env.getInt("THROTTLE_MAX_ATTEMPTS", 6);
+    private static final long BASE_BACKOFF_MS = Env.getLong("THROTTLE_BASE_BACKOFF_MS", 50);
+    private static final long MAX_BACKOFF_MS = Env.getLong("THROTTLE_MAX_BACKOFF_MS", 2_000);
+
+    private AwsClients() {}
+
+    public static DynamoDbClient dynamoDb() {
+        return wrap(DynamoDbClient.class,
+            DynamoDbClient.builder().overrideConfiguration(overrideConfiguration()).build(),
+            AdaptiveLimiter.forService("dynamodb"));
+    }
+
+    public static EventBridgeClient eventBridge() {
+        return wrap(EventBridgeClient.class,
+            EventBridgeClient.builder().overrideConfiguration(overrideConfiguration()).build(),
+            AdaptiveLimiter.forService("eventbridge"));
+    }
+
+    public static S3Client s3() {
+        return wrap(S3Client.class,
+            S3Client.builder().overrideConfiguration(overrideConfiguration()).build(),
+            AdaptiveLimiter.forService("s3"));
+    }
+
+    /**
+     * Wraps any SDK client interface (or a local fake implementing it) with the
+     * limiter and throttle-only retry.
+     */
+    public static <T> T wrap(Class<T> clientType, T delegate, AdaptiveLimiter limiter) {
+        return wrap(clientType, delegate, limiter, MAX_ATTEMPTS, BASE_BACKOFF_MS, MAX_BACKOFF_MS);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T wrap(Class<T> clientType, T delegate, AdaptiveLimiter limiter,
+                      int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+        return (T) Proxy.newProxyInstance(
+            clientType.getClassLoader(),
+            new Class<?>[] { clientType },
+            new LimitedInvocationHandler(clientType, delegate, limiter, maxAttempts, baseBackoffMs, maxBackoffMs));
+    }
+
+    public static boolean isThrottle(Throwable error) {
+        return error instanceof SdkServiceException && ((SdkServiceException) error).isThrottlingException();
+    }
+
+    private static ClientOverrideConfiguration overrideConfiguration() {
+        RetryPolicy defaults = RetryPolicy.defaultRetryPolicy();
+        RetryCondition nonThrottling = context ->
+            !isThrottle(context.exception()) && defaults.retryCondition().shouldRetry(context);
+        return ClientOverrideConfiguration.builder()
+            .retryPolicy(defaults.toBuilder().retryCondition(nonThrottling).build())
+            .build();
+    }
+
+    private static final class LimitedInvocationHandler implements InvocationHandler {
+        private final Class<?> clientType;
+        private final Object delegate;
+        private final AdaptiveLimiter limiter;
+        private final int maxAttempts;
+        private final long baseBackoffMs;
+        private final long maxBackoffMs;
+
+        LimitedInvocationHandler(Class<?> clientType, Object delegate, AdaptiveLimiter limiter,
+                                 int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+            this.clientType = clientType;
+            this.delegate = delegate;
+            this.limiter = limiter;
+            this.maxAttempts = maxAttempts;
+            this.baseBackoffMs = baseBackoffMs;
+            this.maxBackoffMs = maxBackoffMs;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isPaginator(method)) {
+                return paginate(proxy, method, args);
+            }
+            if (!isServiceCall(method)) {
+                return invokeDelegate(method, args);
+            }
+            for (int attempt = 1; ; attempt++) {
+                limiter.acquire();
+                try {
+                    Object result = invokeDelegate(method, args);
+                    limiter.onSuccess();
+                    return result;
+                } catch (Throwable error) {
+                    if (!isThrottle(error)) {
+                        limiter.release();
+                        throw error;
+                    }
+                    limiter.onThrottle();
+                    if (attempt >= maxAttempts) {
+                        logger.error("{}.{} still throttled after {} attempts", limiter.getName(), method.getName(), attempt);
+                        throw error;
+                    }
+                    long backoff = ThreadLocalRandom.current().nextLong(
+                        Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt, 16)) + 1);
+                    logger.info("{}.{} throttled - retrying call in {} ms (attempt {})",
+                        limiter.getName(), method.getName(), backoff, attempt);
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                }
+            }
+        }
+
+        /**
+         * A paginator sends its page requests through the client it was created
+         * with, so it is built on the proxy rather than the delegate. Overloads
+         * taking a request builder or no request are the interface's default
+         * methods, which build the request and call back into the proxy.
+         */
+        private Object paginate(Object proxy, Method method, Object[] args) throws Throwable {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 1 && SdkRequest.class.isAssignableFrom(parameterTypes[0])) {
+                return method.getReturnType().getConstructor(clientType, parameterTypes[0]).newInstance(proxy, args[0]);
+            }
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+
+        private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static boolean isPaginator(Method method) {
+            return method.getName().endsWith("Paginator") && SdkIterable.class.isAssignableFrom(method.getReturnType());
+        }
+
+        private static boolean isServiceCall(Method method) {
+            if (method.getDeclaringClass() == Object.class) {
+                return false;
+            }
+            Class<?> returnType = method.getReturnType();
+            return SdkResponse.class.isAssignableFrom(returnType)
+                || ResponseInputStream.class.isAssignableFrom(returnType)
+                || ResponseBytes.class.isAssignableFrom(returnType)
+                || (returnType == Object.class && method.getParameterCount() > 0);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.kyc.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreaker
+ *
+ * Count-based circuit breaker for an external provider:
+ * - CLOSED: calls flow; outcomes are recorded in a sliding window
+ * - OPEN: calls are rejected until the open interval has elapsed
+ * - HALF_OPEN: a limited number of probe calls decide whether to close or re-open
+ *
+ * Each admitted call reports its outcome through the {@link Permission} it was
+ * given. Outcomes of calls admitted before the last state change are ignored,
+ * so a slow call cannot count against the window or the probes of a later state.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openMillis, int halfOpenProbes) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openMillis, halfOpenProbes,
+            System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock wall-clock millisecond source for the open interval, replaceable for tests
+     */
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                   long openMillis, int halfOpenProbes, LongSupplier clock) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenProbes = halfOpenProbes;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the permission for a call to proceed, or null if it is rejected.
+     * In HALF_OPEN only the configured number of probes are admitted at a time.
+     */
+    public synchronized Permission tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMillis) {
+                return null;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return null;
+            }
+            probesInFlight++;
+        }
+        return new Permission(generation);
+    }
+
+    private synchronized void onSuccess(long callGeneration) {
+        if (callGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure(long callGeneration) {
+        if (callGeneration != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State next) {
+        logger.warn("Circuit breaker {} transitioning from {} to {}", name, state, next);
+        state = next;
+        generation++;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    /**
+     * Admission of one call, tied to the breaker state it was admitted in.
+     */
+    public final class Permission {
+        private final long generation;
+
+        private Permission(long generation) {
+            this.generation = generation;
+        }
+
+        public void onSuccess() {
+            CircuitBreaker.this.onSuccess(generation);
+        }
+
+        public void onFailure() {
+            CircuitBreaker.this.onFailure(generation);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.kyc.resilience;
+
+import java.util.Arrays;
+
+/**
+ * LatencyTracker
+ *
+ * Keeps the most recent call latencies for a provider in a fixed ring buffer
+ * and answers percentile queries over them.
+ */
+public class LatencyTracker {
+    private final long[] samples;
+    private int index;
+    private int count;
+
+    public LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public synchronized void record(long latencyMillis) {
+        samples[index] = latencyMillis;
+        index = (index + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @return the latency at the given percentile (0-1), or -1 if fewer than
+     *         {@code minSamples} latencies have been recorded
+     */
+    public long percentile(double percentile, int minSamples) {
+        long[] snapshot;
+        synchronized (this) {
+            if (count < minSamples || count == 0) {
+                return -1;
+            }
+            snapshot = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(snapshot);
+        int rank = (int) Math.ceil(percentile * snapshot.length) - 1;
+        return snapshot[Math.max(0, Math.min(snapshot.length - 1, rank))];
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+}
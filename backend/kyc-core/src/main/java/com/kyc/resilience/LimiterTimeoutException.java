@@ -0,0 +1,12 @@
+package com.kyc.resilience;
+
+/**
+ * Thrown when a call waits longer than the acquire timeout for a slot in an
+ * {@link AdaptiveLimiter}. The call was never sent to the service.
+ */
+public class LimiterTimeoutException extends RuntimeException {
+
+    public LimiterTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,246 @@
+package com.kyc.resilience;
+
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ProviderGuard
+ *
+ * Resilience layer for calls to an external verification provider (OCR, face
+ * match, fraud databases):
+ * - Bulkhead: caps concurrent calls per provider so one slow provider cannot
+ *   take every thread
+ * - Circuit breaker: rejects calls fast while the provider is failing, with
+ *   half-open probing to detect recovery
+ * - Hedged requests: if a call is slower than the provider's recent latency
+ *   percentile, a second identical call is started and the first result wins
+ * - Hard timeout: bounds how long the Lambda waits for the provider
+ *
+ * Guards are kept per provider in static scope so breaker state and latency
+ * history survive across warm invocations. Only idempotent calls should be
+ * guarded, since a hedged call may run twice.
+ */
+public class ProviderGuard {
+    private static final Logger logger = LoggerFactory.getLogger(ProviderGuard.class);
+    private static final Map<String, ProviderGuard> GUARDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "provider-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    private final String name;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyTracker latencyTracker;
+    private final double hedgePercentile;
+    private final long timeoutMillis;
+    private final ExecutorService executor;
+
+    private final LongAdder hedgeCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public ProviderGuard(String name, int maxConcurrentCalls, long bulkheadWaitMillis, CircuitBreaker circuitBreaker,
+                         LatencyTracker latencyTracker, double hedgePercentile, long timeoutMillis) {
+        this(name, maxConcurrentCalls, bulkheadWaitMillis, circuitBreaker, latencyTracker, hedgePercentile,
+            timeoutMillis, EXECUTOR);
+    }
+
+    /**
+     * @param executor runs the provider attempts, replaceable for tests
+     */
+    ProviderGuard(String name, int maxConcurrentCalls, long bulkheadWaitMillis, CircuitBreaker circuitBreaker,
+                  LatencyTracker latencyTracker, double hedgePercentile, long timeoutMillis, ExecutorService executor) {
+        this.name = name;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadWaitMillis = bulkheadWaitMillis;
+        this.circuitBreaker = circuitBreaker;
+        this.latencyTracker = latencyTracker;
+        this.hedgePercentile = hedgePercentile;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the shared guard for a provider, configured from PROVIDER_* and
+     * BREAKER_* environment variables.
+     */
+    public static ProviderGuard forProvider(String provider) {
+        return GUARDS.computeIfAbsent(provider, p -> new ProviderGuard(
+            p,
+            Env.getInt("PROVIDER_MAX_CONCURRENT", 8),
+            Env.getLong("PROVIDER_BULKHEAD_WAIT_MS", 100),
+            new CircuitBreaker(
+                p,
+                Env.getInt("BREAKER_WINDOW_SIZE", 20),
+                Env.getInt("BREAKER_MIN_CALLS", 10),
+                Env.getDouble("BREAKER_FAILURE_RATE", 0.5),
+                Env.getLong("BREAKER_OPEN_MS", 30_000),
+                Env.getInt("BREAKER_HALF_OPEN_PROBES", 3)),
+            new LatencyTracker(256),
+            Env.getDouble("PROVIDER_HEDGE_PERCENTILE", 0.95),
+            Env.getLong("PROVIDER_TIMEOUT_MS", 5_000)));
+    }
+
+    public <T> T call(Callable<T> call) {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCount.increment();
+                throw new ProviderUnavailableException(name + " bulkhead is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProviderUnavailableException(name + " call interrupted", e);
+        }
+        CircuitBreaker.Permission permission = circuitBreaker.tryAcquirePermission();
+        if (permission == null) {
+            bulkhead.release();
+            rejectedCount.increment();
+            throw new ProviderUnavailableException(name + " circuit breaker is open");
+        }
+
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(2);
+        List<Attempt<T>> attempts = new ArrayList<>(2);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long hedgeDelayMillis = latencyTracker.percentile(hedgePercentile, MIN_HEDGE_SAMPLES);
+        long hedgeAt = hedgeDelayMillis < 0 ? Long.MAX_VALUE : start + TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis);
+        boolean hedged = hedgeDelayMillis < 0;
+        Throwable lastError = null;
+
+        submit(completionService, call, futures, attempts);
+        int outstanding = 1;
+        try {
+            while (outstanding > 0) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                long waitUntil = hedged ? deadline : Math.min(deadline, hedgeAt);
+                Future<T> completed = completionService.poll(waitUntil - now, TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    if (!hedged && System.nanoTime() >= hedgeAt) {
+                        hedged = true;
+                        if (bulkhead.tryAcquire()) {
+                            hedgeCount.increment();
+                            logger.info("{} slower than p{} ({} ms) - sending hedged request",
+                                name, Math.round(hedgePercentile * 100), hedgeDelayMillis);
+                            submit(completionService, call, futures, attempts);
+                            outstanding++;
+                        }
+                    }
+                    continue;
+                }
+                outstanding--;
+                try {
+                    T result = completed.get();
+                    permission.onSuccess();
+                    return result;
+                } catch (ExecutionException e) {
+                    lastError = e.getCause();
+                    logger.warn("{} call attempt failed: {}", name, lastError.toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            permission.onFailure();
+            throw new ProviderUnavailableException(name + " call interrupted", e);
+        } finally {
+            // An attempt cancelled before it started never runs, so its permit is returned here
+            futures.forEach(future -> future.cancel(true));
+            attempts.forEach(Attempt::releaseIfNotStarted);
+        }
+
+        permission.onFailure();
+        if (outstanding == 0 && lastError != null) {
+            throw new ProviderUnavailableException(name + " call failed", lastError);
+        }
+        throw new ProviderUnavailableException(String.format("%s call timed out after %d ms", name, timeoutMillis));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public int getAvailablePermits() {
+        return bulkhead.availablePermits();
+    }
+
+    private <T> void submit(CompletionService<T> completionService, Callable<T> call,
+                            List<Future<T>> futures, List<Attempt<T>> attempts) {
+        Attempt<T> attempt = new Attempt<>(call);
+        attempts.add(attempt);
+        futures.add(completionService.submit(attempt));
+    }
+
+    /**
+     * One provider attempt holding one bulkhead permit. The permit is returned
+     * exactly once: by the attempt when it runs, or by the caller when the
+     * attempt is cancelled before it starts.
+     */
+    private final class Attempt<T> implements Callable<T> {
+        private final Callable<T> call;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        Attempt(Callable<T> call) {
+            this.call = call;
+        }
+
+        @Override
+        public T call() throws Exception {
+            if (!started.compareAndSet(false, true)) {
+                throw new CancellationException(name + " attempt cancelled before it started");
+            }
+            long attemptStart = System.nanoTime();
+            try {
+                T result = call.call();
+                latencyTracker.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - attemptStart));
+                return result;
+            } finally {
+                bulkhead.release();
+            }
+        }
+
+        void releaseIfNotStarted() {
+            if (started.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.kyc.resilience;
+
+/**
+ * Thrown when an external provider call is rejected by its circuit breaker or
+ * bulkhead, times out, or fails on every attempt.
+ */
+public class ProviderUnavailableException extends RuntimeException {
+
+    public ProviderUnavailableException(String message) {
+        super(message);
+    }
+
+    public ProviderUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,74 @@
+package com.kyc.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenBucket
+ *
+ * Simple blocking token bucket used to pace calls to a downstream service:
+ * - Refills continuously at a fixed rate (tokens per second)
+ * - Allows short bursts up to its capacity
+ * - Blocks callers until a token is available
+ */
+public class TokenBucket {
+    private final double ratePerSecond;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double ratePerSecond, double capacity) {
+        this(ratePerSecond, capacity, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic time source, replaceable for tests
+     */
+    TokenBucket(double ratePerSecond, double capacity, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Token bucket requires a positive rate and a capacity of at least 1");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Blocks until a token can be taken from the bucket.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 when a token was taken, otherwise the nanoseconds until the next token
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / ratePerSecond * 1_000_000_000L);
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        double refilled = (now - lastRefillNanos) / 1_000_000_000.0 * ratePerSecond;
+        tokens = Math.min(capacity, tokens + refilled);
+        lastRefillNanos = now;
+    }
+}
@@ -0,0 +1,79 @@
+package com.kyc.scoring;
+
+import com.kyc.util.Env;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * ScoringContext
+ *
+ * Source of randomness for the mock scoring in one KYC case, replacing the
+ * shared global generator behind Math.random():
+ * - The case seed is derived from a base seed, the customer ID and the
+ *   document URL, so a case scores the same way no matter which thread,
+ *   container or replay partition processes it
+ * - Each stage draws from its own SplittableRandom derived from the case seed,
+ *   so adding draws to one stage does not shift the scores of another
+ * - Generators are created per call and never shared between threads
+ *
+ * Live invocations use SCORING_SEED as the base seed when it is set, and a
+ * fresh random base seed otherwise.
+ */
+public final class ScoringContext {
+    private static final boolean SEED_CONFIGURED = Env.get("SCORING_SEED", null) != null;
+    private static final long CONFIGURED_SEED = Env.getLong("SCORING_SEED", 0);
+
+    private final long seed;
+
+    private ScoringContext(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Context for a live invocation.
+     */
+    public static ScoringContext forCase(String customerId, String documentUrl) {
+        long baseSeed = SEED_CONFIGURED ? CONFIGURED_SEED : ThreadLocalRandom.current().nextLong();
+        return seeded(baseSeed, customerId, documentUrl);
+    }
+
+    /**
+     * Reproducible context: the same base seed and case always give the same scores.
+     */
+    public static ScoringContext seeded(long baseSeed, String customerId, String documentUrl) {
+        return new ScoringContext(mix(mix(baseSeed ^ hash(customerId)) ^ hash(documentUrl)));
+    }
+
+    /**
+     * Returns a new generator for one scoring stage (e.g. "identity.provider").
+     * Calling it again for the same stage restarts the same sequence.
+     */
+    public RandomGenerator random(String stage) {
+        return new SplittableRandom(mix(seed ^ hash(stage)));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // 64-bit FNV-1a; String.hashCode() is only 32 bits
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,125 @@
+package com.kyc.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OtlpFileExporter
+ *
+ * Appends spans to a local file in the OTLP/JSON format of the OpenTelemetry
+ * file exporter, for local and emulator runs (Lambda functions use
+ * {@link OtlpStdoutExporter}):
+ * - One ExportTraceServiceRequest per line, holding one agent invocation
+ * - Readable by the collector's otlpjsonfile receiver and by TraceLatencyAnalyzer
+ * - Each line is a single append, so agents running side by side on one
+ *   machine can share the file
+ * - When the file exceeds the size limit it is moved to {@code <file>.1}
+ *   (replacing the previous one), bounding disk use
+ */
+public class OtlpFileExporter implements SpanExporter {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Map<Path, OtlpFileExporter> exporters = new ConcurrentHashMap<>();
+
+    private static final int STATUS_OK = 1;
+    private static final int STATUS_ERROR = 2;
+
+    private final Path path;
+    private final long maxBytes;
+
+    public OtlpFileExporter(Path path, long maxBytes) {
+        this.path = path;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * One exporter per file, so all tracers in the process serialize their writes.
+     */
+    public static OtlpFileExporter shared(Path path, long maxBytes) {
+        return exporters.computeIfAbsent(path.toAbsolutePath(), p -> new OtlpFileExporter(p, maxBytes));
+    }
+
+    @Override
+    public void export(String serviceName, List<Span> spans) throws IOException {
+        String json = objectMapper.writeValueAsString(toRequest(serviceName, spans));
+        byte[] line = (json + "\n").getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (Files.exists(path) && Files.size(path) + line.length > maxBytes) {
+                Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.write(path, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    static Map<String, Object> toRequest(String serviceName, List<Span> spans) {
+        List<Object> otlpSpans = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            otlpSpans.add(toOtlpSpan(span));
+        }
+
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Map.of("name", "com.kyc.tracing"));
+        scopeSpans.put("spans", otlpSpans);
+
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Map.of("attributes", List.of(attribute("service.name", serviceName))));
+        resourceSpans.put("scopeSpans", List.of(scopeSpans));
+
+        return Map.of("resourceSpans", List.of(resourceSpans));
+    }
+
+    private static Map<String, Object> toOtlpSpan(Span span) {
+        Map<String, Object> otlpSpan = new LinkedHashMap<>();
+        otlpSpan.put("traceId", span.getContext().getTraceId());
+        otlpSpan.put("spanId", span.getContext().getSpanId());
+        if (span.getParentSpanId() != null) {
+            otlpSpan.put("parentSpanId", span.getParentSpanId());
+        }
+        otlpSpan.put("name", span.getName());
+        otlpSpan.put("kind", span.getKind().getCode());
+        // OTLP/JSON encodes 64-bit integers as strings
+        otlpSpan.put("startTimeUnixNano", String.valueOf(span.getStartEpochNanos()));
+        otlpSpan.put("endTimeUnixNano", String.valueOf(span.getEndEpochNanos()));
+
+        List<Object> attributes = new ArrayList<>(span.getAttributes().size());
+        span.getAttributes().forEach((key, value) -> attributes.add(attribute(key, value)));
+        otlpSpan.put("attributes", attributes);
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (span.getErrorMessage() == null) {
+            status.put("code", STATUS_OK);
+        } else {
+            status.put("code", STATUS_ERROR);
+            status.put("message", span.getErrorMessage());
+        }
+        otlpSpan.put("status", status);
+        return otlpSpan;
+    }
+
+    private static Map<String, Object> attribute(String key, Object value) {
+        Map<String, Object> anyValue;
+        if (value instanceof Boolean) {
+            anyValue = Map.of("boolValue", value);
+        } else if (value instanceof Integer || value instanceof Long) {
+            anyValue = Map.of("intValue", String.valueOf(value));
+        } else if (value instanceof Number) {
+            anyValue = Map.of("doubleValue", ((Number) value).doubleValue());
+        } else {
+            anyValue = Map.of("stringValue", String.valueOf(value));
+        }
+        return Map.of("key", key, "value", anyValue);
+    }
+}
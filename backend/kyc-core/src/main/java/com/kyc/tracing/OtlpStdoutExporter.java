@@ -0,0 +1,39 @@
+package com.kyc.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * OtlpStdoutExporter
+ *
+ * Writes spans to standard output, which Lambda ships to CloudWatch Logs:
+ * - One line per span, each a complete OTLP/JSON ExportTraceServiceRequest,
+ *   so every span is its own small log event
+ * - Lines are found with the filter pattern {@code resourceSpans} and can be
+ *   fed to TraceLatencyAnalyzer or the collector's otlpjsonfile receiver
+ * - Nothing is kept on the function's disk, so spans outlive the container
+ */
+public class OtlpStdoutExporter implements SpanExporter {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final PrintStream out;
+
+    public OtlpStdoutExporter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void export(String serviceName, List<Span> spans) throws IOException {
+        StringBuilder lines = new StringBuilder(spans.size() * 512);
+        for (Span span : spans) {
+            lines.append(objectMapper.writeValueAsString(OtlpFileExporter.toRequest(serviceName, List.of(span))))
+                .append('\n');
+        }
+        // One print call, so invocations in other threads never interleave with these lines
+        out.print(lines);
+        out.flush();
+    }
+}
@@ -0,0 +1,154 @@
+package com.kyc.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One timed operation in a KYC workflow trace.
+ *
+ * The span an agent starts for its invocation is the local root; phases are
+ * recorded as children with {@link #startChild}. Children are collected on the
+ * local root, and the whole tree is exported in one write when the root ends,
+ * so concurrent invocations in one container never share a buffer.
+ *
+ * Start times are wall-clock (comparable across agents); durations are
+ * measured with the monotonic clock.
+ */
+public class Span implements AutoCloseable {
+
+    /** OpenTelemetry span kinds, with their OTLP codes. */
+    public enum Kind {
+        INTERNAL(1),
+        SERVER(2),
+        CLIENT(3);
+
+        private final int code;
+
+        Kind(int code) {
+            this.code = code;
+        }
+
+        public int getCode() {
+            return code;
+        }
+    }
+
+    private final Tracer tracer;
+    private final Span localRoot;
+    private final List<Span> children;
+    private final String name;
+    private final Kind kind;
+    private final TraceContext context;
+    private final String parentSpanId;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long endEpochNanos;
+    private String errorMessage;
+    private boolean ended;
+
+    Span(Tracer tracer, Span localRoot, String name, Kind kind, TraceContext context, String parentSpanId) {
+        this.tracer = tracer;
+        this.localRoot = localRoot == null ? this : localRoot;
+        this.children = localRoot == null ? Collections.synchronizedList(new ArrayList<>()) : null;
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        Instant now = Instant.now();
+        this.startEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.startNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Starts a phase of this span's operation (e.g. "FraudDetection.store").
+     */
+    public Span startChild(String name) {
+        return startChild(name, Kind.INTERNAL);
+    }
+
+    public Span startChild(String name, Kind kind) {
+        return new Span(tracer, localRoot, name, kind,
+            new TraceContext(context.getTraceId(), TraceContext.newSpanId()), context.getSpanId());
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Marks the span as failed. The workflow's Fail states are driven by the
+     * agent output, so only exceptions are recorded as span errors.
+     */
+    public Span recordError(Throwable error) {
+        this.errorMessage = error.getClass().getSimpleName()
+            + (error.getMessage() == null ? "" : ": " + error.getMessage());
+        return this;
+    }
+
+    public void end() {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        endEpochNanos = startEpochNanos + (System.nanoTime() - startNanoTime);
+        if (localRoot != this) {
+            localRoot.children.add(this);
+            return;
+        }
+        List<Span> spans;
+        synchronized (children) {
+            spans = new ArrayList<>(children.size() + 1);
+            spans.add(this);
+            spans.addAll(children);
+        }
+        tracer.export(spans);
+    }
+
+    @Override
+    public void close() {
+        end();
+    }
+
+    /**
+     * @return the context to hand to the next agent
+     */
+    public TraceContext getContext() {
+        return context;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,16 @@
+package com.kyc.tracing;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for finished spans. Called once per agent invocation with the
+ * invocation's span and all of its phases.
+ */
+public interface SpanExporter {
+
+    void export(String serviceName, List<Span> spans) throws IOException;
+
+    /** Discards spans; used when export is disabled. */
+    SpanExporter NONE = (serviceName, spans) -> { };
+}
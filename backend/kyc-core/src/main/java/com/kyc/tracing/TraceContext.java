@@ -0,0 +1,92 @@
+package com.kyc.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * TraceContext
+ *
+ * Identifies one span within a KYC workflow trace, in the W3C Trace Context
+ * format used by OpenTelemetry:
+ * - 128-bit trace ID shared by every agent that handles the same upload
+ * - 64-bit span ID of the span that emitted the context
+ * - Carried between agents as a {@code traceparent} string on the KYCEvent,
+ *   and with it through the Step Functions payload and the EventBridge detail
+ */
+public final class TraceContext {
+    private static final String VERSION = "00";
+    private static final String SAMPLED = "01";
+
+    private final String traceId;
+    private final String spanId;
+
+    TraceContext(String traceId, String spanId) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+    }
+
+    /**
+     * Parses a {@code traceparent} value ({@code 00-<trace-id>-<span-id>-<flags>}).
+     *
+     * @return the context, or null if the value is missing or malformed so the
+     *         caller starts a new trace instead of failing the invocation
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length != 4 || !isHex(parts[1], 32) || !isHex(parts[2], 16)
+                || isZero(parts[1]) || isZero(parts[2])) {
+            return null;
+        }
+        return new TraceContext(parts[1], parts[2]);
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return toHex(random.nextLong() | 1L, 16) + toHex(random.nextLong(), 16);
+    }
+
+    static String newSpanId() {
+        return toHex(ThreadLocalRandom.current().nextLong() | 1L, 16);
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String toTraceparent() {
+        return VERSION + "-" + traceId + "-" + spanId + "-" + SAMPLED;
+    }
+
+    @Override
+    public String toString() {
+        return toTraceparent();
+    }
+
+    private static String toHex(long value, int digits) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(digits - hex.length()) + hex;
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        return value.chars().allMatch(c -> c == '0');
+    }
+}
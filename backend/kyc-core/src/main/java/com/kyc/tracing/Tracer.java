@@ -0,0 +1,96 @@
+package com.kyc.tracing;
+
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracer
+ *
+ * Starts the spans one agent records for the KYC workflow trace:
+ * - An invocation span per handled case, continuing the trace carried by the
+ *   incoming KYCEvent or starting a new one at document validation
+ * - The first invocation span in the container is tagged {@code faas.coldstart}
+ * - Finished spans go to the configured exporter; export failures are logged
+ *   and never fail the invocation
+ *
+ * Configured with TRACE_EXPORTER: {@code stdout} (the default in Lambda)
+ * writes spans to CloudWatch Logs, {@code file} (the default elsewhere) appends
+ * to TRACE_EXPORT_PATH (default /tmp/kyc-traces.jsonl, rotated at
+ * TRACE_EXPORT_MAX_BYTES), and {@code none} or TRACE_EXPORT_ENABLED=false
+ * disables export.
+ */
+public class Tracer {
+    private static final Logger logger = LoggerFactory.getLogger(Tracer.class);
+
+    private final String serviceName;
+    private final SpanExporter exporter;
+    private final AtomicBoolean coldStart = new AtomicBoolean(true);
+
+    public Tracer(String serviceName, SpanExporter exporter) {
+        this.serviceName = serviceName;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Tracer for an agent, using the exporter selected by the environment.
+     */
+    public static Tracer forService(String serviceName) {
+        return new Tracer(serviceName, configuredExporter());
+    }
+
+    private static SpanExporter configuredExporter() {
+        if (!Env.getBoolean("TRACE_EXPORT_ENABLED", true)) {
+            return SpanExporter.NONE;
+        }
+        // /tmp does not outlive a Lambda container, so functions log their spans instead
+        boolean inLambda = System.getenv("AWS_LAMBDA_FUNCTION_NAME") != null;
+        String exporter = Env.get("TRACE_EXPORTER", inLambda ? "stdout" : "file");
+        return switch (exporter) {
+            case "stdout" -> new OtlpStdoutExporter(System.out);
+            case "file" -> OtlpFileExporter.shared(
+                Path.of(Env.get("TRACE_EXPORT_PATH", "/tmp/kyc-traces.jsonl")),
+                Env.getLong("TRACE_EXPORT_MAX_BYTES", 64L * 1024 * 1024));
+            case "none" -> SpanExporter.NONE;
+            default -> {
+                logger.warn("Unknown TRACE_EXPORTER {}; spans are not exported", exporter);
+                yield SpanExporter.NONE;
+            }
+        };
+    }
+
+    /**
+     * Starts the span for one agent invocation.
+     *
+     * @param traceparent the context from the previous step, or null to start a new trace
+     */
+    public Span startSpan(String name, String traceparent) {
+        TraceContext parent = TraceContext.parse(traceparent);
+        if (traceparent != null && parent == null) {
+            logger.warn("Ignoring malformed traceparent: {}", traceparent);
+        }
+        TraceContext context = new TraceContext(
+            parent == null ? TraceContext.newTraceId() : parent.getTraceId(), TraceContext.newSpanId());
+        Span span = new Span(this, null, name, Span.Kind.SERVER, context,
+            parent == null ? null : parent.getSpanId());
+        span.setAttribute("faas.coldstart", coldStart.getAndSet(false));
+        return span;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    void export(List<Span> spans) {
+        try {
+            exporter.export(serviceName, spans);
+        } catch (Exception e) {
+            logger.warn("Failed to export {} spans for trace {}", spans.size(),
+                spans.get(0).getContext().getTraceId(), e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.kyc.util;
+
+/**
+ * Env
+ *
+ * Typed access to optional Lambda environment variables with defaults.
+ * Malformed values fall back to the default rather than failing the invocation.
+ */
+public final class Env {
+
+    private Env() {}
+
+    public static String get(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        try {
+            return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        try {
+            return Long.parseLong(get(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String name, double defaultValue) {
+        try {
+            return Double.parseDouble(get(name, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(get(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.kyc.cache;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CustomerStateCacheTest {
+
+    @Test
+    void sharesOneCachePerTable() {
+        StubDynamoDb dynamoDb = new StubDynamoDb();
+
+        CustomerStateCache records = CustomerStateCache.shared(dynamoDb, "KYCRecords-shared-test");
+        CustomerStateCache archive = CustomerStateCache.shared(dynamoDb, "KYCArchive-shared-test");
+
+        assertSame(records, CustomerStateCache.shared(new StubDynamoDb(), "KYCRecords-shared-test"));
+        assertNotSame(records, archive);
+
+        records.get("customer-1");
+        archive.get("customer-1");
+        assertEquals(List.of("KYCRecords-shared-test", "KYCArchive-shared-test"), dynamoDb.tables);
+    }
+
+    @Test
+    void loadsOnAMissAndServesTheNextLookupFromTheCache() {
+        StubDynamoDb dynamoDb = new StubDynamoDb();
+        CustomerStateCache cache = new CustomerStateCache(dynamoDb, "KYCRecords", 100, 60_000);
+
+        cache.get("customer-1");
+        cache.get("customer-1");
+        cache.getConsistent("customer-1");
+
+        assertEquals(2, dynamoDb.tables.size());
+        assertEquals(0.5, cache.getHitRate());
+    }
+
+    private static class StubDynamoDb implements DynamoDbClient {
+        final List<String> tables = new ArrayList<>();
+
+        @Override
+        public QueryResponse query(QueryRequest request) {
+            tables.add(request.tableName());
+            return QueryResponse.builder().items(List.of()).build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.kyc.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+
+    @Test
+    void countsAccessesUpToTheMaximum() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        assertEquals(0, sketch.frequency("customer-1"));
+
+        for (int i = 0; i < 3; i++) {
+            sketch.increment("customer-1");
+        }
+        assertEquals(3, sketch.frequency("customer-1"));
+
+        for (int i = 0; i < 20; i++) {
+            sketch.increment("customer-1");
+        }
+        assertEquals(15, sketch.frequency("customer-1"));
+    }
+
+    @Test
+    void halvesEveryCounterOnceTheSampleSizeIsReached() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("hot");
+        }
+
+        // Sample size is 10 * 64 recorded accesses; unique keys reach it well before 1000 increments
+        int increments = 0;
+        while (sketch.frequency("hot") == 15) {
+            sketch.increment("customer-" + increments++);
+            assertTrue(increments < 1000, "sketch was never reset");
+        }
+
+        assertEquals(7, sketch.frequency("hot"));
+        assertTrue(increments >= 640 - 15, "reset after only " + increments + " increments");
+    }
+
+    @Test
+    void oldPopularityFadesAfterRepeatedResets() {
+        FrequencySketch sketch = new FrequencySketch(64);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment("hot");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            sketch.increment("customer-" + (i % 4_000));
+        }
+
+        assertTrue(sketch.frequency("hot") < 15, () -> "frequency is still " + sketch.frequency("hot"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.kyc.cache;
+
+import com.kyc.cache.WTinyLfuCache.Region;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WTinyLfuCacheTest {
+    private static final long TTL_MS = 60_000;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void movesEntriesFromTheWindowToProbationAndPromotesThemOnAHit() {
+        // Window of 1, probation and protected share a main region of 9, protected holds 7
+        WTinyLfuCache<String, Integer> cache = cache(10);
+        cache.put("a", 1);
+        assertEquals(Region.WINDOW, cache.region("a"));
+
+        cache.put("b", 2);
+        assertEquals(Region.PROBATION, cache.region("a"));
+        assertEquals(Region.WINDOW, cache.region("b"));
+
+        assertEquals(1, cache.get("a").intValue());
+        assertEquals(Region.PROTECTED, cache.region("a"));
+    }
+
+    @Test
+    void demotesTheLeastRecentlyUsedProtectedEntryWhenProtectedIsFull() {
+        WTinyLfuCache<String, Integer> cache = cache(10);
+        for (int i = 0; i < 9; i++) {
+            cache.put("key-" + i, i);
+        }
+        for (int i = 0; i < 8; i++) {
+            cache.get("key-" + i);
+        }
+
+        assertEquals(Region.PROBATION, cache.region("key-0"));
+        for (int i = 1; i < 8; i++) {
+            assertEquals(Region.PROTECTED, cache.region("key-" + i));
+        }
+    }
+
+    @Test
+    void admitsACandidateThatIsUsedMoreOftenThanTheVictim() {
+        WTinyLfuCache<String, Integer> cache = cache(100);
+        for (int i = 0; i < 100; i++) {
+            load(cache, "key-" + i);
+        }
+        assertEquals(Region.PROBATION, cache.region("key-0"));
+
+        for (int i = 0; i < 4; i++) {
+            assertNull(cache.get("popular"));
+        }
+        cache.put("popular", 1);
+        load(cache, "next");
+
+        assertEquals(Region.PROBATION, cache.region("popular"));
+        assertNull(cache.region("key-0"), "the probation victim is evicted");
+        assertNull(cache.region("key-99"), "the one-off window entry was not admitted");
+        assertEquals(2L, cache.getEvictions());
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void keepsFrequentlyUsedEntriesDuringAScanOfOneOffKeys() {
+        WTinyLfuCache<String, Integer> cache = cache(100);
+        for (int i = 0; i < 99; i++) {
+            load(cache, "key-" + i);
+            cache.get("key-" + i);
+            cache.get("key-" + i);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            load(cache, "scan-" + i);
+        }
+
+        // The sketch can overestimate a one-off key that shares counters with
+        // frequent ones, so a few may still be admitted; an LRU would keep none
+        int survivors = 0;
+        for (int i = 0; i < 99; i++) {
+            if (cache.region("key-" + i) != null) {
+                survivors++;
+            }
+        }
+        assertTrue(survivors >= 90, survivors + " of 99 frequent entries survived the scan");
+    }
+
+    @Test
+    void countsAMissFollowedByALoadAsOneAccess() {
+        WTinyLfuCache<String, Integer> cache = cache(100);
+
+        load(cache, "a");
+        assertEquals(1, cache.frequency("a"));
+
+        cache.get("a");
+        assertEquals(2, cache.frequency("a"));
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    void expiresEntriesAfterTheTtl() {
+        WTinyLfuCache<String, Integer> cache = cache(10);
+        cache.put("a", 1);
+
+        advance(TTL_MS - 1);
+        assertEquals(1, cache.get("a").intValue());
+
+        advance(1);
+        assertNull(cache.get("a"));
+        assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    void renewsTheTtlOnWrite() {
+        WTinyLfuCache<String, Integer> cache = cache(10);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        advance(TTL_MS / 2);
+        cache.computeIfPresent("a", value -> value + 10);
+        advance(TTL_MS / 2);
+
+        assertEquals(11, cache.get("a").intValue());
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    void reclaimsExpiredEntriesWithoutReadingThem() {
+        WTinyLfuCache<String, Integer> cache = cache(10);
+        for (int i = 0; i < 5; i++) {
+            cache.put("key-" + i, i);
+        }
+
+        advance(TTL_MS);
+        cache.put("fresh", 1);
+
+        assertEquals(1, cache.size());
+        assertEquals(5L, cache.getExpirations());
+        for (int i = 0; i < 5; i++) {
+            assertNull(cache.region("key-" + i));
+        }
+        cache.computeIfPresent("key-0", value -> value + 1);
+        assertNull(cache.region("key-0"), "an expired entry is not brought back by an update");
+    }
+
+    private WTinyLfuCache<String, Integer> cache(int maximumSize) {
+        return new WTinyLfuCache<>(maximumSize, TTL_MS, nanos::get);
+    }
+
+    private void advance(long millis) {
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    // A read-through lookup as CustomerStateCache does it: a miss, then the loaded value
+    private static void load(WTinyLfuCache<String, Integer> cache, String key) {
+        if (cache.get(key) == null) {
+            cache.put(key, key.length());
+        }
+    }
+}
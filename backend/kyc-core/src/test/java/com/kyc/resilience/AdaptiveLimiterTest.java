@@ -0,0 +1,142 @@
+package com.kyc.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+    private static final long FALLBACK_WINDOW_MS = 5_000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final CountingBucket fallbackBucket = new CountingBucket();
+
+    private AdaptiveLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveLimiter("test", initialLimit, minLimit, maxLimit, 0.5,
+            100, FALLBACK_WINDOW_MS, fallbackBucket, now::get);
+    }
+
+    @Test
+    void successesIncreaseLimitAdditively() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(4, 1, 64);
+
+        // +1/limit per success: 4 -> 4.25 -> 4.49 -> 4.71 -> 4.92 -> 5.12
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.onSuccess();
+        }
+
+        assertEquals(5, limiter.getLimit());
+        assertEquals(5, limiter.getSuccessCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitNeverExceedsMaximum() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(8, 1, 8);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire();
+            limiter.onSuccess();
+        }
+
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void throttleDecreasesLimitMultiplicatively() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(16, 1, 64);
+
+        limiter.acquire();
+        limiter.onThrottle();
+        assertEquals(8, limiter.getLimit());
+
+        limiter.acquire();
+        limiter.onThrottle();
+        assertEquals(4, limiter.getLimit());
+        assertEquals(2, limiter.getThrottleCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitNeverDropsBelowMinimum() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(4, 2, 64);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+            limiter.onThrottle();
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void acquireTimesOutWhenLimitIsExhausted() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(1, 1, 1);
+        limiter.acquire();
+
+        assertThrows(LimiterTimeoutException.class, limiter::acquire);
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void pacesCallsAtFloorWithinFallbackWindow() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(1, 1, 4);
+        limiter.acquire();
+        limiter.onThrottle();
+
+        limiter.acquire();
+        limiter.release();
+
+        assertEquals(1, fallbackBucket.acquired, "acquire at the floor is paced by the fallback bucket");
+    }
+
+    @Test
+    void stopsPacingAfterFallbackWindow() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(1, 1, 4);
+        limiter.acquire();
+        limiter.onThrottle();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(FALLBACK_WINDOW_MS + 1));
+        limiter.acquire();
+        limiter.release();
+
+        assertEquals(0, fallbackBucket.acquired, "no pacing once the fallback window has passed");
+    }
+
+    @Test
+    void doesNotPaceAboveFloor() throws InterruptedException {
+        AdaptiveLimiter limiter = limiter(8, 1, 64);
+        limiter.acquire();
+        limiter.onThrottle();
+        assertTrue(limiter.getLimit() > 1);
+
+        limiter.acquire();
+        limiter.release();
+
+        assertEquals(0, fallbackBucket.acquired);
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(4, 0, 8));
+        assertThrows(IllegalArgumentException.class, () -> limiter(4, 8, 4));
+    }
+
+    private static class CountingBucket extends TokenBucket {
+        int acquired;
+
+        CountingBucket() {
+            super(1, 1);
+        }
+
+        @Override
+        public void acquire() {
+            acquired++;
+        }
+    }
+}
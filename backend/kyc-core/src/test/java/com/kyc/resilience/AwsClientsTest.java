@@ -0,0 +1,165 @@
+package com.kyc.resilience;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AwsClientsTest {
+    private static final int MAX_ATTEMPTS = 4;
+
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter("dynamodb-test", 16, 1, 64, 0.5,
+        1_000, 5_000, new TokenBucket(1_000, 100));
+    private final StubDynamoDb stub = new StubDynamoDb();
+    private final DynamoDbClient client = AwsClients.wrap(DynamoDbClient.class, stub, limiter, MAX_ATTEMPTS, 1, 2);
+
+    @Test
+    void classifiesThrottlingErrors() {
+        assertTrue(AwsClients.isThrottle(throttle()));
+        assertTrue(AwsClients.isThrottle(DynamoDbException.builder()
+            .statusCode(400)
+            .awsErrorDetails(AwsErrorDetails.builder().errorCode("ProvisionedThroughputExceededException").build())
+            .build()));
+
+        assertFalse(AwsClients.isThrottle(serverError()));
+        assertFalse(AwsClients.isThrottle(SdkClientException.create("connection reset")));
+        assertFalse(AwsClients.isThrottle(new RuntimeException("boom")));
+    }
+
+    @Test
+    void retriesThrottledCallUntilItSucceeds() {
+        stub.outcomes.add(throttle());
+        stub.outcomes.add(throttle());
+
+        assertNotNull(client.putItem(PutItemRequest.builder().tableName("t").build()));
+
+        assertEquals(3, stub.calls);
+        assertEquals(2, limiter.getThrottleCount());
+        assertEquals(1, limiter.getSuccessCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doesNotRetryOtherErrors() {
+        SdkServiceException error = serverError();
+        stub.outcomes.add(error);
+
+        SdkServiceException thrown = assertThrows(SdkServiceException.class,
+            () -> client.putItem(PutItemRequest.builder().tableName("t").build()));
+
+        assertSame(error, thrown);
+        assertEquals(1, stub.calls);
+        assertEquals(0, limiter.getThrottleCount());
+        assertEquals(16, limiter.getLimit(), "non-throttle errors leave the limit alone");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        for (int i = 0; i < MAX_ATTEMPTS + 2; i++) {
+            stub.outcomes.add(throttle());
+        }
+
+        SdkServiceException thrown = assertThrows(SdkServiceException.class,
+            () -> client.putItem(PutItemRequest.builder().tableName("t").build()));
+
+        assertTrue(thrown.isThrottlingException());
+        assertEquals(MAX_ATTEMPTS, stub.calls);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitsAndRetriesEveryPageOfAPaginator() {
+        stub.outcomes.add(throttle());
+
+        int pages = 0;
+        for (ScanResponse page : client.scanPaginator(ScanRequest.builder().tableName("t").build())) {
+            pages++;
+        }
+
+        assertEquals(2, pages);
+        assertEquals(3, stub.calls, "the throttled first page is retried");
+        assertEquals(1, limiter.getThrottleCount());
+        assertEquals(2, limiter.getSuccessCount());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitsPaginatorsBuiltFromARequestBuilder() {
+        long items = client.scanPaginator(request -> request.tableName("t")).items().stream().count();
+
+        assertEquals(2, items);
+        assertEquals(2, stub.calls);
+        assertEquals(2, limiter.getSuccessCount());
+    }
+
+    @Test
+    void passesNonServiceMethodsThrough() {
+        assertEquals("stub-dynamodb", client.serviceName());
+        assertEquals(0, stub.calls);
+        assertEquals(0, limiter.getSuccessCount());
+    }
+
+    private static SdkServiceException throttle() {
+        return SdkServiceException.builder().statusCode(429).message("Rate exceeded").build();
+    }
+
+    private static SdkServiceException serverError() {
+        return SdkServiceException.builder().statusCode(500).message("Internal error").build();
+    }
+
+    /** Fails with the queued errors in order, then succeeds; scans return two pages of one item. */
+    private static class StubDynamoDb implements DynamoDbClient {
+        final Deque<RuntimeException> outcomes = new ArrayDeque<>();
+        int calls;
+
+        @Override
+        public PutItemResponse putItem(PutItemRequest request) {
+            nextOutcome();
+            return PutItemResponse.builder().build();
+        }
+
+        @Override
+        public ScanResponse scan(ScanRequest request) {
+            nextOutcome();
+            Map<String, AttributeValue> item = Map.of("customerId", AttributeValue.builder().s("c" + calls).build());
+            ScanResponse.Builder page = ScanResponse.builder().items(item);
+            return request.hasExclusiveStartKey() ? page.build() : page.lastEvaluatedKey(item).build();
+        }
+
+        private void nextOutcome() {
+            calls++;
+            RuntimeException outcome = outcomes.poll();
+            if (outcome != null) {
+                throw outcome;
+            }
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
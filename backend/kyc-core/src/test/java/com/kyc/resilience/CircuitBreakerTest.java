@@ -0,0 +1,152 @@
+package com.kyc.resilience;
+
+import com.kyc.resilience.CircuitBreaker.Permission;
+import com.kyc.resilience.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CircuitBreakerTest {
+    private static final long OPEN_MS = 30_000;
+    private static final int PROBES = 2;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    // Window of 4 calls, at least 4 recorded, opens at a 50% failure rate
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 4, 4, 0.5, OPEN_MS, PROBES, now::get);
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        call().onSuccess();
+        call().onFailure();
+        call().onSuccess();
+        assertEquals(State.CLOSED, breaker.getState(), "fewer than the minimum calls recorded");
+
+        call().onFailure();
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void staysClosedBelowTheThreshold() {
+        call().onFailure();
+        for (int i = 0; i < 10; i++) {
+            call().onSuccess();
+        }
+        call().onFailure();
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpensOnceTheOpenIntervalHasElapsed() {
+        trip();
+
+        now.addAndGet(OPEN_MS - 1);
+        assertNull(breaker.tryAcquirePermission());
+        assertEquals(State.OPEN, breaker.getState());
+
+        now.addAndGet(1);
+        assertNotNull(breaker.tryAcquirePermission());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void admitsOnlyTheConfiguredProbes() {
+        halfOpen();
+
+        Permission first = call();
+        call();
+        assertNull(breaker.tryAcquirePermission());
+
+        first.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void closesWhenEveryProbeSucceeds() {
+        halfOpen();
+        Permission first = call();
+        Permission second = call();
+
+        first.onSuccess();
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        second.onSuccess();
+
+        assertEquals(State.CLOSED, breaker.getState());
+        call().onFailure();
+        call().onFailure();
+        assertEquals(State.CLOSED, breaker.getState(), "the window starts empty after closing");
+    }
+
+    @Test
+    void reopensWhenAProbeFails() {
+        halfOpen();
+
+        call().onFailure();
+
+        assertEquals(State.OPEN, breaker.getState());
+        now.addAndGet(OPEN_MS - 1);
+        assertNull(breaker.tryAcquirePermission(), "the open interval restarts");
+    }
+
+    @Test
+    void ignoresLateProbeResultsAfterReopening() {
+        halfOpen();
+        Permission failing = call();
+        Permission late = call();
+
+        failing.onFailure();
+        late.onSuccess();
+        assertEquals(State.OPEN, breaker.getState());
+
+        now.addAndGet(OPEN_MS);
+        Permission probe = call();
+        late.onSuccess();
+        assertEquals(State.HALF_OPEN, breaker.getState(), "a stale success does not count as a probe");
+        call();
+        assertNull(breaker.tryAcquirePermission());
+
+        probe.onSuccess();
+        assertEquals(State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void ignoresLateResultsFromBeforeTheBreakerClosed() {
+        Permission slow = call();
+        trip();
+        now.addAndGet(OPEN_MS);
+        call().onSuccess();
+        call().onSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+
+        call().onSuccess();
+        call().onSuccess();
+        call().onFailure();
+        slow.onFailure();
+
+        assertEquals(State.CLOSED, breaker.getState(), "only three calls of this state are recorded");
+    }
+
+    private Permission call() {
+        Permission permission = breaker.tryAcquirePermission();
+        assertNotNull(permission);
+        return permission;
+    }
+
+    private void trip() {
+        for (int i = 0; i < 4; i++) {
+            call().onFailure();
+        }
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    private void halfOpen() {
+        trip();
+        now.addAndGet(OPEN_MS);
+    }
+}
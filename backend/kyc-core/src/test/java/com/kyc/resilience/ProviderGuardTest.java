@@ -0,0 +1,174 @@
+package com.kyc.resilience;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderGuardTest {
+    private static final int BULKHEAD = 4;
+
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    @Test
+    void hedgeCancelledBeforeStartingReturnsItsPermit() {
+        // The hedge is queued but never started, as on an exhausted pool, and is
+        // cancelled once the first attempt wins
+        ProviderGuard guard = guard(new FirstTaskOnlyExecutor(), 5_000);
+
+        String result = guard.call(() -> {
+            Thread.sleep(50);
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(1, guard.getHedgeCount());
+        assertEquals(BULKHEAD, guard.getAvailablePermits());
+    }
+
+    @Test
+    void fasterHedgeWinsOverASlowAttempt() throws Exception {
+        ProviderGuard guard = guard(executor(2), 5_000);
+        AtomicInteger attempts = new AtomicInteger();
+
+        long start = System.nanoTime();
+        String result = guard.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(2_000);
+                return "slow";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000, "did not wait for the slow attempt");
+        assertEquals(1, guard.getHedgeCount());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitState());
+        assertEquals(BULKHEAD, awaitPermits(guard));
+    }
+
+    @Test
+    void hedgingAndCancellingUnderLoadKeepsEveryPermit() throws Exception {
+        ProviderGuard guard = guard(executor(2), 5_000);
+        // Fewer callers than permits leaves permits for hedges, which then queue behind the two pool threads
+        ExecutorService callers = executor(BULKHEAD - 1);
+
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            calls.add(callers.submit(() -> {
+                try {
+                    guard.call(() -> {
+                        Thread.sleep(ThreadLocalRandom.current().nextInt(1, 10));
+                        return "ok";
+                    });
+                } catch (ProviderUnavailableException e) {
+                    // Rejections and timeouts are allowed; only the permit count matters
+                }
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(guard.getHedgeCount() > 0, "load should trigger hedged requests");
+        assertEquals(BULKHEAD, awaitPermits(guard));
+    }
+
+    @Test
+    void timedOutAttemptsReturnTheirPermits() throws Exception {
+        ProviderGuard guard = guard(executor(1), 20);
+
+        assertThrows(ProviderUnavailableException.class, () -> guard.call(() -> {
+            Thread.sleep(1_000);
+            return "late";
+        }));
+
+        assertEquals(BULKHEAD, awaitPermits(guard));
+    }
+
+    private ProviderGuard guard(ExecutorService executor, long timeoutMillis) {
+        // Recent latencies of 1 ms, so any slower call is hedged
+        LatencyTracker latencyTracker = new LatencyTracker(256);
+        for (int i = 0; i < 50; i++) {
+            latencyTracker.record(1);
+        }
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 20, 10, 1.0, 30_000, 3);
+        return new ProviderGuard("test", BULKHEAD, 1_000, circuitBreaker, latencyTracker, 0.5,
+            timeoutMillis, executor);
+    }
+
+    private ExecutorService executor(int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        executors.add(executor);
+        return executor;
+    }
+
+    // Attempts interrupted by cancellation return their permits on their own thread
+    private static int awaitPermits(ProviderGuard guard) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (guard.getAvailablePermits() < BULKHEAD && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return guard.getAvailablePermits();
+    }
+
+    /** Runs only the first task; later tasks stay queued and never start. */
+    private static class FirstTaskOnlyExecutor extends AbstractExecutorService {
+        private final List<Runnable> queued = new ArrayList<>();
+        private boolean started;
+
+        @Override
+        public synchronized void execute(Runnable task) {
+            if (started) {
+                queued.add(task);
+                return;
+            }
+            started = true;
+            Thread thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public synchronized List<Runnable> shutdownNow() {
+            return Collections.unmodifiableList(queued);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
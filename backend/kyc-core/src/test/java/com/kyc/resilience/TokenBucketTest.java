@@ -0,0 +1,68 @@
+package com.kyc.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 3, now::get);
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    void reportsWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 1, now::get);
+        bucket.tryAcquire();
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(60), bucket.tryAcquire());
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, now::get);
+        for (int i = 0; i < 5; i++) {
+            bucket.tryAcquire();
+        }
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.tryAcquire();
+        bucket.tryAcquire();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertEquals(0, bucket.tryAcquire());
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0.5));
+    }
+}
@@ -0,0 +1,60 @@
+package com.kyc.scoring;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ScoringContextTest {
+    private static final String CUSTOMER = "customer-1";
+    private static final String DOCUMENT = "s3://kyc-documents/uploads/customer-1/passport.pdf";
+
+    @Test
+    void sameSeedAndCaseGiveTheSameDraws() {
+        ScoringContext first = ScoringContext.seeded(42, CUSTOMER, DOCUMENT);
+        ScoringContext second = ScoringContext.seeded(42, CUSTOMER, DOCUMENT);
+
+        assertEquals(first.getSeed(), second.getSeed());
+        assertArrayEquals(draws(first.random("identity.provider")), draws(second.random("identity.provider")));
+    }
+
+    @Test
+    void restartsAStageSequenceOnEveryCall() {
+        ScoringContext scoring = ScoringContext.seeded(42, CUSTOMER, DOCUMENT);
+
+        assertArrayEquals(draws(scoring.random("fraud.score")), draws(scoring.random("fraud.score")));
+    }
+
+    @Test
+    void drawsDifferentSequencesForOtherStagesCasesAndSeeds() {
+        double[] base = draws(ScoringContext.seeded(42, CUSTOMER, DOCUMENT).random("fraud.score"));
+
+        assertNotEquals(base[0], draws(ScoringContext.seeded(42, CUSTOMER, DOCUMENT).random("fraud.velocity"))[0]);
+        assertNotEquals(base[0], draws(ScoringContext.seeded(42, "customer-2", DOCUMENT).random("fraud.score"))[0]);
+        assertNotEquals(base[0], draws(ScoringContext.seeded(42, CUSTOMER, DOCUMENT + "?v=2").random("fraud.score"))[0]);
+        assertNotEquals(base[0], draws(ScoringContext.seeded(43, CUSTOMER, DOCUMENT).random("fraud.score"))[0]);
+    }
+
+    @Test
+    void givesTheSameDrawsOnEveryThread() throws Exception {
+        double[] expected = draws(ScoringContext.seeded(7, CUSTOMER, DOCUMENT).random("document.score"));
+        double[][] actual = new double[1][];
+
+        Thread thread = new Thread(() -> actual[0] = draws(ScoringContext.seeded(7, CUSTOMER, DOCUMENT).random("document.score")));
+        thread.start();
+        thread.join();
+
+        assertArrayEquals(expected, actual[0]);
+    }
+
+    private static double[] draws(RandomGenerator random) {
+        double[] draws = new double[8];
+        for (int i = 0; i < draws.length; i++) {
+            draws[i] = random.nextDouble();
+        }
+        return draws;
+    }
+}
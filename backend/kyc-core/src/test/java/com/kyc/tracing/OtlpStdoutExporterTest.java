@@ -0,0 +1,38 @@
+package com.kyc.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OtlpStdoutExporterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writesOneRequestLinePerSpan() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Tracer tracer = new Tracer("FraudDetectionAgent",
+            new OtlpStdoutExporter(new PrintStream(out, true, StandardCharsets.UTF_8)));
+
+        Span root = tracer.startSpan("FraudDetection", null);
+        root.startChild("FraudDetection.detect").end();
+        root.startChild("FraudDetection.store", Span.Kind.CLIENT).end();
+        root.end();
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            JsonNode resourceSpans = objectMapper.readTree(line).path("resourceSpans").get(0);
+            assertEquals("FraudDetectionAgent",
+                resourceSpans.path("resource").path("attributes").get(0).path("value").path("stringValue").asText());
+            JsonNode spans = resourceSpans.path("scopeSpans").get(0).path("spans");
+            assertEquals(1, spans.size());
+            assertEquals(root.getContext().getTraceId(), spans.get(0).path("traceId").asText());
+        }
+    }
+}
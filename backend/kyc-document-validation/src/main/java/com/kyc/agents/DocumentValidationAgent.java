@@ -0,0 +1,293 @@
+package com.kyc.agents;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kyc.cache.CustomerStateCache;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.AwsClients;
+import com.kyc.scoring.ScoringContext;
+import com.kyc.tracing.Span;
+import com.kyc.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * DocumentValidationAgent
+ * 
+ * Validates uploaded KYC documents for:
+ * - File format compliance (PDF, JPEG, PNG)
+ * - File size limits
+ * - Basic document quality checks
+ * - Metadata extraction
+ * 
+ * Publishes Document.Validated event to EventBridge on success. Starts the
+ * workflow trace: the event carries the trace context to the later agents.
+ * The workflow's first step invokes the agent again with that event; that
+ * invocation returns the validation result carried in the event, without
+ * scoring, storing or publishing again, and only records a short span that
+ * continues the trace from {@code detail.traceparent}.
+ */
+public class DocumentValidationAgent implements RequestHandler<Map<String, Object>, KYCEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentValidationAgent.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private final DynamoDbClient dynamoDbClient;
+    private final EventBridgeClient eventBridgeClient;
+    private final CustomerStateCache customerStateCache;
+    private final Tracer tracer;
+    private final String tableName;
+    private final String eventBusName;
+    
+    public DocumentValidationAgent() {
+        this(AwsClients.dynamoDb(), AwsClients.eventBridge(), Tracer.forService("DocumentValidationAgent"),
+            System.getenv("TABLE_NAME"), System.getenv("EVENT_BUS_NAME"));
+    }
+    
+    /**
+     * Uses the given clients and tracer instead of the Lambda defaults, e.g. in tests.
+     */
+    protected DocumentValidationAgent(DynamoDbClient dynamoDbClient, EventBridgeClient eventBridgeClient,
+                                      Tracer tracer, String tableName, String eventBusName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.eventBridgeClient = eventBridgeClient;
+        this.tableName = tableName;
+        this.customerStateCache = CustomerStateCache.shared(dynamoDbClient, tableName);
+        this.tracer = tracer;
+        this.eventBusName = eventBusName;
+    }
+    
+    @Override
+    public KYCEvent handleRequest(Map<String, Object> input, Context context) {
+        // Invoked by the S3 upload notification, and again by the workflow with the
+        // Document.Validated event, whose trace the workflow invocation continues
+        JsonNode request = input == null ? objectMapper.createObjectNode() : objectMapper.valueToTree(input);
+        JsonNode detail = request.path("detail");
+        if (detail.isObject()) {
+            return continueWorkflow(detail, context);
+        }
+        logger.info("DocumentValidationAgent invoked with S3 event");
+        Span span = tracer.startSpan("DocumentValidation", null);
+        span.setAttribute("faas.invocation_id", context == null ? null : context.getAwsRequestId());
+        
+        try {
+            JsonNode records = request.path("Records");
+            if (!records.isArray() || records.isEmpty()) {
+                logger.error("S3 event is null or has no records");
+                throw new RuntimeException("Invalid S3 event");
+            }
+            
+            // Process first record
+            JsonNode record = records.get(0);
+            String bucket = record.path("s3").path("bucket").path("name").asText();
+            String key = record.path("s3").path("object").path("key").asText();
+            
+            // The upload time lets end-to-end latency include S3 notification delay
+            if (record.hasNonNull("eventTime")) {
+                Instant uploadTime = Instant.parse(record.path("eventTime").asText());
+                span.setAttribute("kyc.upload.time_unix_nano",
+                    uploadTime.getEpochSecond() * 1_000_000_000L + uploadTime.getNano());
+            }
+            
+            logger.info("Processing S3 object - Bucket: {}, Key: {}", bucket, key);
+            
+            // Validate document and store result in DynamoDB
+            KYCEvent event = validateAndStore(bucket, key, span);
+            
+            // Publish event to EventBridge
+            if (event.getIsValid()) {
+                try (Span publish = span.startChild("DocumentValidation.publish", Span.Kind.CLIENT)) {
+                    publish.setAttribute("messaging.destination.name", eventBusName);
+                    publishEvent(event);
+                }
+            }
+            
+            logger.info("Document validation completed for customer: {} - Valid: {}", event.getCustomerId(), event.getIsValid());
+            return event;
+            
+        } catch (Exception e) {
+            span.recordError(e);
+            logger.error("Error in DocumentValidationAgent", e);
+            throw new RuntimeException("Document validation failed", e);
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Workflow step: the Document.Validated event already holds the stored
+     * validation result, so it is returned as is. Scoring again would draw a
+     * new result and store it a second time.
+     */
+    private KYCEvent continueWorkflow(JsonNode detail, Context context) {
+        logger.info("DocumentValidationAgent invoked with Document.Validated event");
+        Span span = tracer.startSpan("DocumentValidation.workflow", detail.path("traceparent").asText(null));
+        span.setAttribute("faas.invocation_id", context == null ? null : context.getAwsRequestId());
+        try {
+            KYCEvent event = objectMapper.treeToValue(detail, KYCEvent.class);
+            if (event.getCustomerId() == null || event.getDocumentUrl() == null || event.getIsValid() == null) {
+                throw new RuntimeException("Document.Validated event is missing customerId, documentUrl or isValid");
+            }
+            span.setAttribute("kyc.customer_id", event.getCustomerId());
+            span.setAttribute("kyc.status", event.getKycStatus() == null ? null : event.getKycStatus().name());
+            event.setTraceparent(span.getContext().toTraceparent());
+            return event;
+        } catch (Exception e) {
+            span.recordError(e);
+            logger.error("Error in DocumentValidationAgent", e);
+            throw new RuntimeException("Document validation failed", e);
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Validates and scores one uploaded document and stores the result, without
+     * publishing. Also used by the batched SQS intake handler.
+     */
+    public KYCEvent validateAndStore(String bucket, String key) {
+        Span span = tracer.startSpan("DocumentValidation", null);
+        try {
+            return validateAndStore(bucket, key, span);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+    
+    private KYCEvent validateAndStore(String bucket, String key, Span span) {
+        // Extract customer info from S3 key: uploads/{customerId}/{filename}
+        String customerId = extractCustomerIdFromKey(key);
+        String documentUrl = String.format("s3://%s/%s", bucket, key);
+        
+        logger.info("Extracted customerId: {}, documentUrl: {}, trace: {}",
+            customerId, documentUrl, span.getContext().getTraceId());
+        span.setAttribute("kyc.customer_id", customerId);
+        
+        // Perform validation (mock logic)
+        KYCEvent event;
+        try (Span validate = span.startChild("DocumentValidation.validate")) {
+            event = evaluate(customerId, documentUrl, ScoringContext.forCase(customerId, documentUrl));
+            validate.setAttribute("kyc.score", event.getVerificationScore());
+        }
+        event.setTraceparent(span.getContext().toTraceparent());
+        span.setAttribute("kyc.status", event.getKycStatus().name());
+        
+        try (Span store = span.startChild("DocumentValidation.store", Span.Kind.CLIENT)) {
+            store.setAttribute("aws.dynamodb.table_names", tableName);
+            storeToDynamoDB(event);
+        }
+        return event;
+    }
+    
+    /**
+     * Validates and scores a document without any I/O. Used directly by the
+     * offline scoring replay.
+     */
+    public static KYCEvent evaluate(String customerId, String documentUrl, ScoringContext scoring) {
+        boolean isValid = validateDocument(documentUrl, scoring.random("document.validation"));
+        double validationScore = calculateValidationScore(documentUrl, scoring.random("document.score"));
+        
+        return KYCEvent.builder()
+            .customerId(customerId)
+            .eventType("Document.Validated")
+            .kycStatus(isValid ? KYCStatus.VALIDATED : KYCStatus.FAILED)
+            .documentUrl(documentUrl)
+            .verificationScore(validationScore)
+            .isValid(isValid)
+            .lastUpdated(Instant.now().toString())
+            .metadata(String.format("Document validated with score: %.2f", validationScore))
+            .build();
+    }
+    
+    /**
+     * Builds the Document.Validated EventBridge entry that starts the workflow.
+     */
+    public PutEventsRequestEntry toEventEntry(KYCEvent event) throws JsonProcessingException {
+        return PutEventsRequestEntry.builder()
+            .eventBusName(eventBusName)
+            .source("kyc.validation")
+            .detailType("Document.Validated")
+            .detail(objectMapper.writeValueAsString(event))
+            .build();
+    }
+    
+    private String extractCustomerIdFromKey(String key) {
+        // Expected format: uploads/{customerId}/{filename}
+        String[] parts = key.split("/");
+        if (parts.length >= 2) {
+            return parts[1];
+        }
+        logger.warn("Could not extract customerId from key: {}", key);
+        return "unknown-customer";
+    }
+    
+    private static boolean validateDocument(String documentUrl, RandomGenerator random) {
+        // Mock validation logic
+        // In production: check file format, size, quality, extract metadata
+        logger.debug("Validating document: {}", documentUrl);
+        
+        // Simulate validation (95% success rate)
+        return random.nextDouble() > 0.05;
+    }
+    
+    private static double calculateValidationScore(String documentUrl, RandomGenerator random) {
+        // Mock scoring logic
+        // In production: analyze document quality, completeness, clarity
+        return 0.75 + (random.nextDouble() * 0.25); // Score between 0.75 and 1.0
+    }
+    
+    private void storeToDynamoDB(KYCEvent event) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("customerId", AttributeValue.builder().s(event.getCustomerId()).build());
+        item.put("eventType", AttributeValue.builder().s(event.getEventType()).build());
+        item.put("kycStatus", AttributeValue.builder().s(event.getKycStatus().name()).build());
+        item.put("documentUrl", AttributeValue.builder().s(event.getDocumentUrl()).build());
+        item.put("verificationScore", AttributeValue.builder().n(event.getVerificationScore().toString()).build());
+        item.put("lastUpdated", AttributeValue.builder().s(event.getLastUpdated()).build());
+        item.put("metadata", AttributeValue.builder().s(event.getMetadata()).build());
+        item.put("isValid", AttributeValue.builder().bool(event.getIsValid()).build());
+        
+        PutItemRequest request = PutItemRequest.builder()
+            .tableName(tableName)
+            .item(item)
+            .build();
+        
+        dynamoDbClient.putItem(request);
+        customerStateCache.applyWrite(event);
+        logger.info("Stored event to DynamoDB: {}", event.getEventType());
+    }
+    
+    private void publishEvent(KYCEvent event) {
+        try {
+            PutEventsRequestEntry eventEntry = toEventEntry(event);
+            
+            PutEventsRequest request = PutEventsRequest.builder()
+                .entries(eventEntry)
+                .build();
+            
+            eventBridgeClient.putEvents(request);
+            logger.info("Published Document.Validated event to EventBridge");
+            
+        } catch (Exception e) {
+            logger.error("Failed to publish event", e);
+        }
+    }
+}
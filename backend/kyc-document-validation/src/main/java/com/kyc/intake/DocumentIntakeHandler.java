@@ -0,0 +1,172 @@
+package com.kyc.intake;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kyc.agents.DocumentValidationAgent;
+import com.kyc.model.KYCEvent;
+import com.kyc.resilience.AwsClients;
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * DocumentIntakeHandler
+ *
+ * Batched alternative to the direct S3 trigger of DocumentValidationAgent.
+ * S3 upload notifications are buffered in SQS and delivered in batches:
+ * - Deduplicates object keys within the batch (S3 may notify more than once)
+ * - Validates the unique documents concurrently on a bounded pool
+ * - Starts workflows in bulk with PutEvents (up to 10 entries per call)
+ * - Reports only the failed messages back to SQS for redelivery
+ *
+ * Batch size and batching window are set on the SQS event source.
+ */
+public class DocumentIntakeHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentIntakeHandler.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int MAX_PUT_EVENTS_ENTRIES = 10;
+
+    private final DocumentValidationAgent validationAgent;
+    private final EventBridgeClient eventBridgeClient;
+    private final ExecutorService validationPool;
+
+    public DocumentIntakeHandler() {
+        this(new DocumentValidationAgent(), AwsClients.eventBridge(), Env.getInt("INTAKE_CONCURRENCY", 8));
+    }
+
+    public DocumentIntakeHandler(DocumentValidationAgent validationAgent, EventBridgeClient eventBridgeClient,
+                                 int concurrency) {
+        this.validationAgent = validationAgent;
+        this.eventBridgeClient = eventBridgeClient;
+        this.validationPool = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "intake-validation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public SQSBatchResponse handleRequest(SQSEvent sqsEvent, Context context) {
+        List<SQSEvent.SQSMessage> messages = sqsEvent.getRecords() == null ? List.of() : sqsEvent.getRecords();
+        logger.info("DocumentIntakeHandler invoked with {} messages", messages.size());
+
+        Set<String> failedMessageIds = new LinkedHashSet<>();
+        Map<S3Object, List<String>> messageIdsByObject = new LinkedHashMap<>();
+
+        // Collect unique objects across the batch
+        for (SQSEvent.SQSMessage message : messages) {
+            try {
+                for (S3Object object : parseNotification(message.getBody())) {
+                    messageIdsByObject.computeIfAbsent(object, o -> new ArrayList<>()).add(message.getMessageId());
+                }
+            } catch (Exception e) {
+                logger.error("Unreadable S3 notification in message {}", message.getMessageId(), e);
+                failedMessageIds.add(message.getMessageId());
+            }
+        }
+
+        // Validate each unique document concurrently
+        Map<S3Object, Future<KYCEvent>> validations = new LinkedHashMap<>();
+        for (S3Object object : messageIdsByObject.keySet()) {
+            validations.put(object, validationPool.submit(() -> validationAgent.validateAndStore(object.bucket(), object.key())));
+        }
+
+        List<KYCEvent> validEvents = new ArrayList<>();
+        List<S3Object> validObjects = new ArrayList<>();
+        for (Map.Entry<S3Object, Future<KYCEvent>> validation : validations.entrySet()) {
+            try {
+                KYCEvent event = validation.getValue().get();
+                if (event.getIsValid()) {
+                    validEvents.add(event);
+                    validObjects.add(validation.getKey());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedMessageIds.addAll(messageIdsByObject.get(validation.getKey()));
+            } catch (ExecutionException e) {
+                logger.error("Validation failed for {}", validation.getKey(), e.getCause());
+                failedMessageIds.addAll(messageIdsByObject.get(validation.getKey()));
+            }
+        }
+
+        // Start workflows in bulk
+        for (int start = 0; start < validEvents.size(); start += MAX_PUT_EVENTS_ENTRIES) {
+            int end = Math.min(validEvents.size(), start + MAX_PUT_EVENTS_ENTRIES);
+            List<S3Object> chunk = validObjects.subList(start, end);
+            try {
+                List<PutEventsRequestEntry> entries = new ArrayList<>(end - start);
+                for (KYCEvent event : validEvents.subList(start, end)) {
+                    entries.add(validationAgent.toEventEntry(event));
+                }
+                PutEventsResponse response = eventBridgeClient.putEvents(PutEventsRequest.builder()
+                    .entries(entries)
+                    .build());
+                List<PutEventsResultEntry> results = response.entries();
+                for (int i = 0; i < results.size(); i++) {
+                    if (results.get(i).errorCode() != null) {
+                        logger.error("Failed to publish event for {}: {}", chunk.get(i), results.get(i).errorCode());
+                        failedMessageIds.addAll(messageIdsByObject.get(chunk.get(i)));
+                    }
+                }
+            } catch (Exception e) {
+                logger.error("Failed to publish {} events", chunk.size(), e);
+                chunk.forEach(object -> failedMessageIds.addAll(messageIdsByObject.get(object)));
+            }
+        }
+
+        logger.info("Intake batch processed - messages: {}, unique documents: {}, workflows started: {}, failed messages: {}",
+            messages.size(), messageIdsByObject.size(), validEvents.size(), failedMessageIds.size());
+
+        List<SQSBatchResponse.BatchItemFailure> failures = new ArrayList<>();
+        failedMessageIds.forEach(id -> failures.add(new SQSBatchResponse.BatchItemFailure(id)));
+        return new SQSBatchResponse(failures);
+    }
+
+    /**
+     * Parses an S3 event notification body. Test events sent by S3 when the
+     * notification is configured contain no records and yield an empty list.
+     */
+    static List<S3Object> parseNotification(String body) throws Exception {
+        List<S3Object> objects = new ArrayList<>();
+        JsonNode records = objectMapper.readTree(body).path("Records");
+        for (JsonNode record : records) {
+            String bucket = record.path("s3").path("bucket").path("name").asText(null);
+            String key = record.path("s3").path("object").path("key").asText(null);
+            if (bucket == null || key == null) {
+                throw new IllegalArgumentException("S3 record without bucket or key");
+            }
+            objects.add(new S3Object(bucket, URLDecoder.decode(key, StandardCharsets.UTF_8)));
+        }
+        return objects;
+    }
+
+    record S3Object(String bucket, String key) {
+        @Override
+        public String toString() {
+            return String.format("s3://%s/%s", bucket, key);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.kyc.agents;
+
+import com.kyc.model.KYCEvent;
+import com.kyc.tracing.Span;
+import com.kyc.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentValidationAgentTest {
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_SPAN_ID = "00f067aa0ba902b7";
+
+    private final List<Span> exported = Collections.synchronizedList(new ArrayList<>());
+    private final StubDynamoDb dynamoDb = new StubDynamoDb();
+    private final StubEventBridge eventBridge = new StubEventBridge();
+    private final DocumentValidationAgent agent = new DocumentValidationAgent(dynamoDb, eventBridge,
+        new Tracer("DocumentValidationAgent", (serviceName, spans) -> exported.addAll(spans)),
+        "KYCRecords", "kyc-bus");
+
+    @Test
+    void workflowInvocationReturnsTheEventResultAndContinuesItsTrace() {
+        Map<String, Object> event = Map.of(
+            "detail-type", "Document.Validated",
+            "source", "kyc.validation",
+            "detail", Map.of(
+                "customerId", "customer-1",
+                "eventType", "Document.Validated",
+                "kycStatus", "VALIDATED",
+                "documentUrl", "s3://kyc-documents/uploads/customer-1/passport.pdf",
+                "verificationScore", 0.87,
+                "isValid", true,
+                "traceparent", "00-" + TRACE_ID + "-" + PARENT_SPAN_ID + "-01"));
+
+        KYCEvent result = agent.handleRequest(event, null);
+
+        assertTrue(result.getIsValid());
+        assertEquals(0.87, result.getVerificationScore().doubleValue(), "the stored score is not redrawn");
+        assertEquals(1, exported.size(), "only the continuation span is recorded");
+        Span root = exported.get(0);
+        assertEquals("DocumentValidation.workflow", root.getName());
+        assertEquals(TRACE_ID, root.getContext().getTraceId());
+        assertEquals(PARENT_SPAN_ID, root.getParentSpanId());
+        assertEquals("00-" + TRACE_ID + "-" + root.getContext().getSpanId() + "-01", result.getTraceparent());
+        assertEquals(0, dynamoDb.puts, "the result was stored by the upload invocation");
+        assertEquals(0, eventBridge.calls, "the workflow is already running");
+    }
+
+    @Test
+    void workflowInvocationRejectsAnEventWithoutAResult() {
+        Map<String, Object> event = Map.of("detail", Map.of("customerId", "customer-1"));
+
+        assertThrows(RuntimeException.class, () -> agent.handleRequest(event, null));
+        assertTrue(exported.get(0).getErrorMessage().contains("missing customerId, documentUrl or isValid"));
+        assertEquals(0, dynamoDb.puts);
+    }
+
+    @Test
+    void uploadNotificationStartsANewTrace() {
+        Map<String, Object> event = Map.of("Records", List.of(Map.of(
+            "eventTime", "2024-06-01T10:00:00.000Z",
+            "s3", Map.of(
+                "bucket", Map.of("name", "kyc-documents"),
+                "object", Map.of("key", "uploads/customer-1/passport.pdf")))));
+
+        agent.handleRequest(event, null);
+
+        Span root = exported.get(0);
+        assertNull(root.getParentSpanId());
+        assertNotEquals(TRACE_ID, root.getContext().getTraceId());
+        assertEquals(1_717_236_000_000_000_000L, root.getAttributes().get("kyc.upload.time_unix_nano"));
+        assertEquals(1, dynamoDb.puts);
+    }
+
+    private static class StubDynamoDb implements DynamoDbClient {
+        int puts;
+
+        @Override
+        public PutItemResponse putItem(PutItemRequest request) {
+            puts++;
+            return PutItemResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class StubEventBridge implements EventBridgeClient {
+        int calls;
+
+        @Override
+        public PutEventsResponse putEvents(PutEventsRequest request) {
+            calls++;
+            return PutEventsResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-eventbridge";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
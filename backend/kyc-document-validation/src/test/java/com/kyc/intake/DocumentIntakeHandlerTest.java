@@ -0,0 +1,154 @@
+package com.kyc.intake;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.kyc.agents.DocumentValidationAgent;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.tracing.SpanExporter;
+import com.kyc.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DocumentIntakeHandlerTest {
+    private static final String BUCKET = "kyc-documents";
+
+    private final StubValidationAgent agent = new StubValidationAgent();
+    private final StubEventBridge eventBridge = new StubEventBridge();
+    private final DocumentIntakeHandler handler = new DocumentIntakeHandler(agent, eventBridge, 4);
+
+    @Test
+    void reportsOnlyTheMessageWhoseValidationFailed() {
+        agent.failingKeys.add("uploads/customer-2/passport.pdf");
+
+        SQSBatchResponse response = handler.handleRequest(batch(
+            message("msg-1", "uploads/customer-1/passport.pdf"),
+            message("msg-2", "uploads/customer-2/passport.pdf"),
+            message("msg-3", "uploads/customer-3/passport.pdf")), null);
+
+        assertEquals(List.of("msg-2"), failedIds(response));
+        assertEquals(Set.of("customer-1", "customer-3"), Set.copyOf(eventBridge.publishedCustomers()));
+    }
+
+    @Test
+    void reportsOnlyTheMessageWhoseEventWasRejected() {
+        eventBridge.rejectedCustomers.add("customer-3");
+
+        SQSBatchResponse response = handler.handleRequest(batch(
+            message("msg-1", "uploads/customer-1/passport.pdf"),
+            message("msg-2", "uploads/customer-2/passport.pdf"),
+            message("msg-3", "uploads/customer-3/passport.pdf")), null);
+
+        assertEquals(List.of("msg-3"), failedIds(response));
+        assertEquals(3, eventBridge.publishedCustomers().size());
+    }
+
+    @Test
+    void reportsEveryMessageOfAFailedDuplicateAndNothingElse() {
+        agent.failingKeys.add("uploads/customer-2/passport.pdf");
+
+        SQSBatchResponse response = handler.handleRequest(batch(
+            message("msg-1", "uploads/customer-2/passport.pdf"),
+            message("msg-2", "uploads/customer-1/passport.pdf"),
+            message("msg-3", "uploads/customer-2/passport.pdf")), null);
+
+        assertEquals(List.of("msg-1", "msg-3"), failedIds(response));
+        assertEquals(2, agent.validations.size(), "a key sent twice is validated once");
+    }
+
+    private static List<String> failedIds(SQSBatchResponse response) {
+        List<String> ids = new ArrayList<>();
+        response.getBatchItemFailures().forEach(failure -> ids.add(failure.getItemIdentifier()));
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static SQSEvent batch(SQSEvent.SQSMessage... messages) {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(messages));
+        return event;
+    }
+
+    private static SQSEvent.SQSMessage message(String messageId, String key) {
+        SQSEvent.SQSMessage message = new SQSEvent.SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(String.format(
+            "{\"Records\":[{\"s3\":{\"bucket\":{\"name\":\"%s\"},\"object\":{\"key\":\"%s\"}}}]}", BUCKET, key));
+        return message;
+    }
+
+    /** Validates every document except the failing keys, without touching DynamoDB. */
+    private static class StubValidationAgent extends DocumentValidationAgent {
+        final Set<String> failingKeys = Collections.synchronizedSet(new HashSet<>());
+        final List<String> validations = Collections.synchronizedList(new ArrayList<>());
+
+        StubValidationAgent() {
+            super(null, null, new Tracer("DocumentValidationAgent", SpanExporter.NONE), "KYCRecords", "kyc-bus");
+        }
+
+        @Override
+        public KYCEvent validateAndStore(String bucket, String key) {
+            validations.add(key);
+            if (failingKeys.contains(key)) {
+                throw new RuntimeException("DynamoDB unavailable");
+            }
+            return KYCEvent.builder()
+                .customerId(key.split("/")[1])
+                .eventType("Document.Validated")
+                .kycStatus(KYCStatus.VALIDATED)
+                .documentUrl(String.format("s3://%s/%s", bucket, key))
+                .isValid(true)
+                .build();
+        }
+    }
+
+    /** Accepts every entry except those for the rejected customers. */
+    private static class StubEventBridge implements EventBridgeClient {
+        final Set<String> rejectedCustomers = Collections.synchronizedSet(new HashSet<>());
+        final List<PutEventsRequestEntry> entries = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public PutEventsResponse putEvents(PutEventsRequest request) {
+            List<PutEventsResultEntry> results = new ArrayList<>();
+            for (PutEventsRequestEntry entry : request.entries()) {
+                entries.add(entry);
+                boolean rejected = rejectedCustomers.stream().anyMatch(id -> entry.detail().contains("\"" + id + "\""));
+                results.add(rejected
+                    ? PutEventsResultEntry.builder().errorCode("InternalFailure").build()
+                    : PutEventsResultEntry.builder().eventId("event-" + entries.size()).build());
+            }
+            return PutEventsResponse.builder().entries(results).build();
+        }
+
+        List<String> publishedCustomers() {
+            List<String> customers = new ArrayList<>();
+            for (PutEventsRequestEntry entry : entries) {
+                String detail = entry.detail();
+                int start = detail.indexOf("\"customerId\":\"") + "\"customerId\":\"".length();
+                customers.add(detail.substring(start, detail.indexOf('"', start)));
+            }
+            return customers;
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-eventbridge";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.kyc.agents;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kyc.cache.CustomerStateCache;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.AwsClients;
+import com.kyc.resilience.ProviderGuard;
+import com.kyc.scoring.ScoringContext;
+import com.kyc.tracing.Span;
+import com.kyc.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * FraudDetectionAgent
+ * 
+ * Detects potential fraud by analyzing:
+ * - Document tampering indicators
+ * - Suspicious patterns in customer data
+ * - Historical fraud databases
+ * - Behavioral biometrics
+ * - Geographic anomalies
+ * 
+ * Publishes Fraud.Checked event to EventBridge.
+ */
+public class FraudDetectionAgent implements RequestHandler<Map<String, Object>, KYCEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(FraudDetectionAgent.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private final DynamoDbClient dynamoDbClient;
+    private final EventBridgeClient eventBridgeClient;
+    private final CustomerStateCache customerStateCache;
+    private final Tracer tracer;
+    private final ProviderGuard fraudProvider;
+    private final String tableName;
+    private final String eventBusName;
+    
+    public FraudDetectionAgent() {
+        this(AwsClients.dynamoDb(), AwsClients.eventBridge(), Tracer.forService("FraudDetectionAgent"),
+            ProviderGuard.forProvider("fraud-database"), System.getenv("TABLE_NAME"), System.getenv("EVENT_BUS_NAME"));
+    }
+    
+    /**
+     * Uses the given clients, tracer and provider guard instead of the Lambda defaults, e.g. in tests.
+     */
+    protected FraudDetectionAgent(DynamoDbClient dynamoDbClient, EventBridgeClient eventBridgeClient, Tracer tracer,
+                                  ProviderGuard fraudProvider, String tableName, String eventBusName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.eventBridgeClient = eventBridgeClient;
+        this.fraudProvider = fraudProvider;
+        this.tableName = tableName;
+        this.customerStateCache = CustomerStateCache.shared(dynamoDbClient, tableName);
+        this.tracer = tracer;
+        this.eventBusName = eventBusName;
+    }
+    
+    @Override
+    public KYCEvent handleRequest(Map<String, Object> input, Context context) {
+        logger.info("FraudDetectionAgent invoked: {}", input);
+        
+        // Extract verification result from previous step
+        Map<String, Object> verificationResult = extractVerificationResult(input);
+        Span span = tracer.startSpan("FraudDetection", (String) verificationResult.get("traceparent"));
+        span.setAttribute("faas.invocation_id", context == null ? null : context.getAwsRequestId());
+        
+        try {
+            String customerId = (String) verificationResult.get("customerId");
+            String documentUrl = (String) verificationResult.get("documentUrl");
+            span.setAttribute("kyc.customer_id", customerId);
+            
+            logger.info("Processing fraud detection for customer: {}, trace: {}",
+                customerId, span.getContext().getTraceId());
+            
+            // Perform fraud detection (mock logic)
+            KYCEvent event;
+            try (Span detect = span.startChild("FraudDetection.detect", Span.Kind.CLIENT)) {
+                event = score(customerId, documentUrl);
+                detect.setAttribute("kyc.score", event.getFraudScore());
+            }
+            event.setTraceparent(span.getContext().toTraceparent());
+            span.setAttribute("kyc.status", event.getKycStatus().name());
+            
+            // Compare with the customer's previous fraud check (read-through cache)
+            try (Span history = span.startChild("FraudDetection.history")) {
+                KYCEvent previousCheck = customerStateCache.get(customerId).getEvent("Fraud.Checked");
+                if (previousCheck != null && previousCheck.getFraudScore() != null) {
+                    history.setAttribute("kyc.previous_score", previousCheck.getFraudScore());
+                    event.setMetadata(String.format("%s (previous risk score: %.2f)",
+                        event.getMetadata(), previousCheck.getFraudScore()));
+                }
+            }
+            
+            // Store in DynamoDB
+            try (Span store = span.startChild("FraudDetection.store", Span.Kind.CLIENT)) {
+                store.setAttribute("aws.dynamodb.table_names", tableName);
+                storeToDynamoDB(event);
+            }
+            
+            // Publish event to EventBridge
+            try (Span publish = span.startChild("FraudDetection.publish", Span.Kind.CLIENT)) {
+                publish.setAttribute("messaging.destination.name", eventBusName);
+                publishEvent(event);
+            }
+            
+            logger.info("Fraud detection completed for customer: {} - Fraud detected: {}", customerId, event.getFraudDetected());
+            return event;
+            
+        } catch (Exception e) {
+            span.recordError(e);
+            logger.error("Error in FraudDetectionAgent", e);
+            throw new RuntimeException("Fraud detection failed", e);
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Runs fraud detection and risk scoring for a customer without storing or
+     * publishing the result. Also used by the batch re-scoring job.
+     */
+    public KYCEvent score(String customerId, String documentUrl) {
+        ScoringContext scoring = ScoringContext.forCase(customerId, documentUrl);
+        // Each provider attempt (including hedges) draws from a fresh generator, so it gets the same answer
+        boolean fraudDetected = fraudProvider.call(
+            () -> detectFraud(customerId, documentUrl, scoring.random("fraud.provider")));
+        return toEvent(customerId, documentUrl, fraudDetected, scoring);
+    }
+    
+    /**
+     * Same scoring as {@link #score} without the provider guard. Used directly
+     * by the offline scoring replay.
+     */
+    public static KYCEvent evaluate(String customerId, String documentUrl, ScoringContext scoring) {
+        boolean fraudDetected = detectFraud(customerId, documentUrl, scoring.random("fraud.provider"));
+        return toEvent(customerId, documentUrl, fraudDetected, scoring);
+    }
+    
+    private static KYCEvent toEvent(String customerId, String documentUrl, boolean fraudDetected, ScoringContext scoring) {
+        double fraudScore = calculateFraudScore(customerId, scoring.random("fraud.score"));
+        
+        return KYCEvent.builder()
+            .customerId(customerId)
+            .eventType("Fraud.Checked")
+            .kycStatus(fraudDetected ? KYCStatus.FRAUD_DETECTED : KYCStatus.VERIFIED)
+            .documentUrl(documentUrl)
+            .fraudScore(fraudScore)
+            .fraudDetected(fraudDetected)
+            .lastUpdated(Instant.now().toString())
+            .metadata(String.format("Fraud check completed - Risk score: %.2f", fraudScore))
+            .build();
+    }
+    
+    private Map<String, Object> extractVerificationResult(Map<String, Object> input) {
+        // Extract from Step Functions input
+        if (input.containsKey("verificationResult")) {
+            Map<String, Object> verificationResult = (Map<String, Object>) input.get("verificationResult");
+            // Lambda invoke results nest the agent output under Payload; selected results are flat
+            return verificationResult.containsKey("Payload")
+                ? (Map<String, Object>) verificationResult.get("Payload")
+                : verificationResult;
+        }
+        return input;
+    }
+    
+    private static boolean detectFraud(String customerId, String documentUrl, RandomGenerator random) {
+        // Mock fraud detection logic
+        // In production:
+        // - Analyze document for tampering signs
+        // - Check against fraud databases
+        // - Detect anomalous patterns
+        // - Verify document security features
+        // - Check IP/location consistency
+        logger.debug("Detecting fraud for customer: {}", customerId);
+        
+        // Simulate fraud detection (5% fraud rate)
+        return random.nextDouble() < 0.05;
+    }
+    
+    private static double calculateFraudScore(String customerId, RandomGenerator random) {
+        // Mock fraud scoring
+        // In production: aggregate risk indicators from multiple sources
+        // Score: 0.0 = no risk, 1.0 = high risk
+        double baseScore = random.nextDouble() * 0.3; // Most customers have low risk (0.0-0.3)
+        
+        // Occasionally generate higher risk scores
+        if (random.nextDouble() < 0.05) {
+            baseScore = 0.7 + (random.nextDouble() * 0.3); // High risk (0.7-1.0)
+        }
+        
+        return baseScore;
+    }
+    
+    private void storeToDynamoDB(KYCEvent event) {
+        PutItemRequest request = PutItemRequest.builder()
+            .tableName(tableName)
+            .item(toItem(event))
+            .build();
+        
+        dynamoDbClient.putItem(request);
+        customerStateCache.applyWrite(event);
+        logger.info("Stored event to DynamoDB: {}", event.getEventType());
+    }
+    
+    public Map<String, AttributeValue> toItem(KYCEvent event) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("customerId", AttributeValue.builder().s(event.getCustomerId()).build());
+        item.put("eventType", AttributeValue.builder().s(event.getEventType()).build());
+        item.put("kycStatus", AttributeValue.builder().s(event.getKycStatus().name()).build());
+        item.put("documentUrl", AttributeValue.builder().s(event.getDocumentUrl()).build());
+        item.put("fraudScore", AttributeValue.builder().n(event.getFraudScore().toString()).build());
+        item.put("lastUpdated", AttributeValue.builder().s(event.getLastUpdated()).build());
+        item.put("metadata", AttributeValue.builder().s(event.getMetadata()).build());
+        item.put("fraudDetected", AttributeValue.builder().bool(event.getFraudDetected()).build());
+        return item;
+    }
+    
+    private void publishEvent(KYCEvent event) {
+        try {
+            String eventDetail = objectMapper.writeValueAsString(event);
+            
+            PutEventsRequestEntry eventEntry = PutEventsRequestEntry.builder()
+                .eventBusName(eventBusName)
+                .source("kyc.fraud")
+                .detailType("Fraud.Checked")
+                .detail(eventDetail)
+                .build();
+            
+            PutEventsRequest request = PutEventsRequest.builder()
+                .entries(eventEntry)
+                .build();
+            
+            eventBridgeClient.putEvents(request);
+            logger.info("Published Fraud.Checked event to EventBridge");
+            
+        } catch (Exception e) {
+            logger.error("Failed to publish event", e);
+        }
+    }
+}
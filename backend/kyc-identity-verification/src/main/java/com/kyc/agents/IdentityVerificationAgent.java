@@ -0,0 +1,236 @@
+package com.kyc.agents;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kyc.cache.CustomerStateCache;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.AwsClients;
+import com.kyc.resilience.ProviderGuard;
+import com.kyc.scoring.ScoringContext;
+import com.kyc.tracing.Span;
+import com.kyc.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * IdentityVerificationAgent
+ * 
+ * Verifies customer identity by:
+ * - Cross-referencing document data with external databases
+ * - Validating personal information
+ * - Checking document authenticity
+ * - Performing liveness detection (if applicable)
+ * 
+ * Publishes Identity.Verified event to EventBridge on success.
+ */
+public class IdentityVerificationAgent implements RequestHandler<Map<String, Object>, KYCEvent> {
+    private static final Logger logger = LoggerFactory.getLogger(IdentityVerificationAgent.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    
+    private final DynamoDbClient dynamoDbClient;
+    private final EventBridgeClient eventBridgeClient;
+    private final CustomerStateCache customerStateCache;
+    private final Tracer tracer;
+    private final ProviderGuard identityProvider;
+    private final String tableName;
+    private final String eventBusName;
+    
+    public IdentityVerificationAgent() {
+        this(AwsClients.dynamoDb(), AwsClients.eventBridge(), Tracer.forService("IdentityVerificationAgent"),
+            ProviderGuard.forProvider("identity-verification"), System.getenv("TABLE_NAME"), System.getenv("EVENT_BUS_NAME"));
+    }
+    
+    /**
+     * Uses the given clients, tracer and provider guard instead of the Lambda defaults, e.g. in tests.
+     */
+    protected IdentityVerificationAgent(DynamoDbClient dynamoDbClient, EventBridgeClient eventBridgeClient, Tracer tracer,
+                                        ProviderGuard identityProvider, String tableName, String eventBusName) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.eventBridgeClient = eventBridgeClient;
+        this.identityProvider = identityProvider;
+        this.tableName = tableName;
+        this.customerStateCache = CustomerStateCache.shared(dynamoDbClient, tableName);
+        this.tracer = tracer;
+        this.eventBusName = eventBusName;
+    }
+    
+    @Override
+    public KYCEvent handleRequest(Map<String, Object> input, Context context) {
+        logger.info("IdentityVerificationAgent invoked: {}", input);
+        
+        // Extract validation result from previous step
+        Map<String, Object> validationResult = extractValidationResult(input);
+        Span span = tracer.startSpan("IdentityVerification", (String) validationResult.get("traceparent"));
+        span.setAttribute("faas.invocation_id", context == null ? null : context.getAwsRequestId());
+        
+        try {
+            String customerId = (String) validationResult.get("customerId");
+            String documentUrl = (String) validationResult.get("documentUrl");
+            span.setAttribute("kyc.customer_id", customerId);
+            
+            logger.info("Processing identity verification for customer: {}, trace: {}",
+                customerId, span.getContext().getTraceId());
+            
+            // Perform identity verification (mock logic)
+            KYCEvent event;
+            try (Span verify = span.startChild("IdentityVerification.verify", Span.Kind.CLIENT)) {
+                event = score(customerId, documentUrl);
+                verify.setAttribute("kyc.score", event.getVerificationScore());
+            }
+            event.setTraceparent(span.getContext().toTraceparent());
+            span.setAttribute("kyc.status", event.getKycStatus().name());
+            
+            // Store in DynamoDB
+            try (Span store = span.startChild("IdentityVerification.store", Span.Kind.CLIENT)) {
+                store.setAttribute("aws.dynamodb.table_names", tableName);
+                storeToDynamoDB(event);
+            }
+            
+            // Publish event to EventBridge
+            if (event.getIsVerified()) {
+                try (Span publish = span.startChild("IdentityVerification.publish", Span.Kind.CLIENT)) {
+                    publish.setAttribute("messaging.destination.name", eventBusName);
+                    publishEvent(event);
+                }
+            }
+            
+            logger.info("Identity verification completed for customer: {} - Verified: {}", customerId, event.getIsVerified());
+            return event;
+            
+        } catch (Exception e) {
+            span.recordError(e);
+            logger.error("Error in IdentityVerificationAgent", e);
+            throw new RuntimeException("Identity verification failed", e);
+        } finally {
+            span.end();
+        }
+    }
+    
+    /**
+     * Verifies and scores a customer's identity without storing or publishing
+     * the result. Also used by the batch re-scoring job.
+     */
+    public KYCEvent score(String customerId, String documentUrl) {
+        ScoringContext scoring = ScoringContext.forCase(customerId, documentUrl);
+        // Each provider attempt (including hedges) draws from a fresh generator, so it gets the same answer
+        boolean isVerified = identityProvider.call(
+            () -> verifyIdentity(customerId, documentUrl, scoring.random("identity.provider")));
+        return toEvent(customerId, documentUrl, isVerified, scoring);
+    }
+    
+    /**
+     * Same scoring as {@link #score} without the provider guard. Used directly
+     * by the offline scoring replay.
+     */
+    public static KYCEvent evaluate(String customerId, String documentUrl, ScoringContext scoring) {
+        boolean isVerified = verifyIdentity(customerId, documentUrl, scoring.random("identity.provider"));
+        return toEvent(customerId, documentUrl, isVerified, scoring);
+    }
+    
+    private static KYCEvent toEvent(String customerId, String documentUrl, boolean isVerified, ScoringContext scoring) {
+        double verificationScore = calculateVerificationScore(customerId, scoring.random("identity.score"));
+        
+        return KYCEvent.builder()
+            .customerId(customerId)
+            .eventType("Identity.Verified")
+            .kycStatus(isVerified ? KYCStatus.VERIFIED : KYCStatus.FAILED)
+            .documentUrl(documentUrl)
+            .verificationScore(verificationScore)
+            .isVerified(isVerified)
+            .lastUpdated(Instant.now().toString())
+            .metadata(String.format("Identity verified with score: %.2f", verificationScore))
+            .build();
+    }
+    
+    private Map<String, Object> extractValidationResult(Map<String, Object> input) {
+        // Extract from Step Functions input
+        if (input.containsKey("validationResult")) {
+            Map<String, Object> validationResult = (Map<String, Object>) input.get("validationResult");
+            // Lambda invoke results nest the agent output under Payload; selected results are flat
+            return validationResult.containsKey("Payload")
+                ? (Map<String, Object>) validationResult.get("Payload")
+                : validationResult;
+        }
+        return input;
+    }
+    
+    private static boolean verifyIdentity(String customerId, String documentUrl, RandomGenerator random) {
+        // Mock verification logic
+        // In production: 
+        // - Extract data from document using OCR (Textract)
+        // - Cross-reference with government databases
+        // - Perform facial recognition (Rekognition)
+        // - Validate document security features
+        logger.debug("Verifying identity for customer: {}", customerId);
+        
+        // Simulate verification (90% success rate)
+        return random.nextDouble() > 0.10;
+    }
+    
+    private static double calculateVerificationScore(String customerId, RandomGenerator random) {
+        // Mock scoring logic
+        // In production: aggregate scores from multiple verification checks
+        return 0.70 + (random.nextDouble() * 0.30); // Score between 0.70 and 1.0
+    }
+    
+    private void storeToDynamoDB(KYCEvent event) {
+        PutItemRequest request = PutItemRequest.builder()
+            .tableName(tableName)
+            .item(toItem(event))
+            .build();
+        
+        dynamoDbClient.putItem(request);
+        customerStateCache.applyWrite(event);
+        logger.info("Stored event to DynamoDB: {}", event.getEventType());
+    }
+    
+    public Map<String, AttributeValue> toItem(KYCEvent event) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("customerId", AttributeValue.builder().s(event.getCustomerId()).build());
+        item.put("eventType", AttributeValue.builder().s(event.getEventType()).build());
+        item.put("kycStatus", AttributeValue.builder().s(event.getKycStatus().name()).build());
+        item.put("documentUrl", AttributeValue.builder().s(event.getDocumentUrl()).build());
+        item.put("verificationScore", AttributeValue.builder().n(event.getVerificationScore().toString()).build());
+        item.put("lastUpdated", AttributeValue.builder().s(event.getLastUpdated()).build());
+        item.put("metadata", AttributeValue.builder().s(event.getMetadata()).build());
+        item.put("isVerified", AttributeValue.builder().bool(event.getIsVerified()).build());
+        return item;
+    }
+    
+    private void publishEvent(KYCEvent event) {
+        try {
+            String eventDetail = objectMapper.writeValueAsString(event);
+            
+            PutEventsRequestEntry eventEntry = PutEventsRequestEntry.builder()
+                .eventBusName(eventBusName)
+                .source("kyc.verification")
+                .detailType("Identity.Verified")
+                .detail(eventDetail)
+                .build();
+            
+            PutEventsRequest request = PutEventsRequest.builder()
+                .entries(eventEntry)
+                .build();
+            
+            eventBridgeClient.putEvents(request);
+            logger.info("Published Identity.Verified event to EventBridge");
+            
+        } catch (Exception e) {
+            logger.error("Failed to publish event", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.kyc.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal Thrift compact protocol encoder for the Parquet page headers and
+ * footer written by {@link ParquetWriter}. Fields must be written in
+ * increasing id order within each struct.
+ */
+final class CompactProtocolWriter {
+    static final int I32 = 5;
+    static final int I64 = 6;
+    static final int BINARY = 8;
+    static final int LIST = 9;
+    static final int STRUCT = 12;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    private final Deque<Integer> enclosingFieldIds = new ArrayDeque<>();
+    private int lastFieldId;
+
+    void structBegin() {
+        enclosingFieldIds.push(lastFieldId);
+        lastFieldId = 0;
+    }
+
+    void structEnd() {
+        out.write(0);
+        lastFieldId = enclosingFieldIds.pop();
+    }
+
+    void i32Field(int id, int value) {
+        fieldHeader(I32, id);
+        i32(value);
+    }
+
+    void i64Field(int id, long value) {
+        fieldHeader(I64, id);
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    void stringField(int id, String value) {
+        fieldHeader(BINARY, id);
+        string(value);
+    }
+
+    /**
+     * Starts a nested struct field; close it with {@link #structEnd()}.
+     */
+    void structField(int id) {
+        fieldHeader(STRUCT, id);
+        structBegin();
+    }
+
+    /**
+     * Starts a list field; follow it with exactly {@code size} elements.
+     */
+    void listField(int id, int elementType, int size) {
+        fieldHeader(LIST, id);
+        if (size < 15) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            writeVarint(out, size);
+        }
+    }
+
+    void i32(int value) {
+        writeVarint(out, zigzag(value));
+    }
+
+    void string(String value) {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, utf8.length);
+        out.writeBytes(utf8);
+    }
+
+    byte[] toByteArray() {
+        return out.toByteArray();
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private void fieldHeader(int type, int id) {
+        int delta = id - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeVarint(out, zigzag(id));
+        }
+        lastFieldId = id;
+    }
+}
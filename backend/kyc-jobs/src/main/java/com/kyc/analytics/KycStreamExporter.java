@@ -0,0 +1,191 @@
+package com.kyc.analytics;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.AwsClients;
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * KycStreamExporter
+ *
+ * Exports KYCRecords changes from the table's DynamoDB stream to the document
+ * bucket for analytics, so analysts no longer query the production table:
+ * - Converts each inserted or modified item to a {@link KYCEvent}
+ * - Writes Parquet files partitioned as
+ *   {@code analytics/kyc-events/date=YYYY-MM-DD/kycStatus=STATUS/}
+ * - Rolls files by size with a bounded in-memory buffer
+ *
+ * Every batch is written in full before the handler returns, so the stream
+ * only advances past records that are in the bucket; file size is set by the
+ * event source's batch size and batching window. A failed batch deletes the
+ * files it already wrote and is retried by Lambda, and a retry of the same
+ * records reuses the same keys. Setting ANALYTICS_LOCAL_DIR writes to a local
+ * directory instead of S3.
+ */
+public class KycStreamExporter implements RequestHandler<DynamodbEvent, Map<String, Object>> {
+    private static final Logger logger = LoggerFactory.getLogger(KycStreamExporter.class);
+
+    // kycStatus is a partition column, so it is not repeated inside the files
+    static final List<ParquetWriter.Column> COLUMNS = List.of(
+        new ParquetWriter.Column("customerId", ParquetWriter.ColumnType.STRING),
+        new ParquetWriter.Column("eventType", ParquetWriter.ColumnType.STRING),
+        new ParquetWriter.Column("documentUrl", ParquetWriter.ColumnType.STRING),
+        new ParquetWriter.Column("isValid", ParquetWriter.ColumnType.BOOLEAN),
+        new ParquetWriter.Column("isVerified", ParquetWriter.ColumnType.BOOLEAN),
+        new ParquetWriter.Column("fraudDetected", ParquetWriter.ColumnType.BOOLEAN),
+        new ParquetWriter.Column("verificationScore", ParquetWriter.ColumnType.DOUBLE),
+        new ParquetWriter.Column("fraudScore", ParquetWriter.ColumnType.DOUBLE),
+        new ParquetWriter.Column("lastUpdated", ParquetWriter.ColumnType.STRING),
+        new ParquetWriter.Column("metadata", ParquetWriter.ColumnType.STRING));
+
+    private final ObjectSink sink;
+    private final String prefix;
+    private final long maxFileBytes;
+    private final long maxBufferedBytes;
+
+    public KycStreamExporter() {
+        this(System.getenv("ANALYTICS_LOCAL_DIR") != null
+                ? new LocalFileSink(Path.of(System.getenv("ANALYTICS_LOCAL_DIR")))
+                : new S3ObjectSink(AwsClients.s3(), System.getenv("DOCUMENT_BUCKET")),
+            Env.get("ANALYTICS_PREFIX", "analytics/kyc-events"),
+            Env.getLong("ANALYTICS_MAX_FILE_BYTES", 64L * 1024 * 1024),
+            Env.getLong("ANALYTICS_MAX_BUFFERED_BYTES", 192L * 1024 * 1024));
+    }
+
+    KycStreamExporter(ObjectSink sink, String prefix, long maxFileBytes, long maxBufferedBytes) {
+        this.sink = sink;
+        this.prefix = prefix;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(DynamodbEvent dynamodbEvent, Context context) {
+        List<DynamodbEvent.DynamodbStreamRecord> records =
+            dynamodbEvent.getRecords() == null ? List.of() : dynamodbEvent.getRecords();
+        logger.info("KycStreamExporter invoked with {} stream records", records.size());
+        if (records.isEmpty()) {
+            return Map.of("exported", 0, "files", 0);
+        }
+
+        RollingPartitionWriter writer = new RollingPartitionWriter(
+            sink, prefix, COLUMNS, batchId(records), maxFileBytes, maxBufferedBytes);
+        int exported = 0;
+        try {
+            for (DynamodbEvent.DynamodbStreamRecord record : records) {
+                if ("REMOVE".equals(record.getEventName()) || record.getDynamodb().getNewImage() == null) {
+                    continue;
+                }
+                KYCEvent event = toKycEvent(record.getDynamodb().getNewImage());
+                String partition = String.format("date=%s/kycStatus=%s",
+                    partitionDate(event, record.getDynamodb().getApproximateCreationDateTime()),
+                    event.getKycStatus() == null ? "UNKNOWN" : event.getKycStatus().name());
+                writer.write(partition, toRow(event));
+                exported++;
+            }
+            writer.flush();
+        } catch (Exception e) {
+            logger.error("Error in KycStreamExporter; discarding {} files of this batch", writer.getFilesWritten(), e);
+            writer.abort();
+            throw new RuntimeException("Analytics export failed", e);
+        }
+
+        logger.info("Exported {} records to {} files", exported, writer.getFilesWritten());
+        return Map.of("exported", exported, "files", writer.getFilesWritten());
+    }
+
+    private KYCEvent toKycEvent(Map<String, AttributeValue> image) {
+        return KYCEvent.builder()
+            .customerId(string(image, "customerId"))
+            .eventType(string(image, "eventType"))
+            .kycStatus(status(string(image, "kycStatus")))
+            .documentUrl(string(image, "documentUrl"))
+            .verificationScore(number(image, "verificationScore"))
+            .fraudScore(number(image, "fraudScore"))
+            .lastUpdated(string(image, "lastUpdated"))
+            .metadata(string(image, "metadata"))
+            .isValid(bool(image, "isValid"))
+            .isVerified(bool(image, "isVerified"))
+            .fraudDetected(bool(image, "fraudDetected"))
+            .build();
+    }
+
+    private static Object[] toRow(KYCEvent event) {
+        return new Object[] {
+            event.getCustomerId(),
+            event.getEventType(),
+            event.getDocumentUrl(),
+            event.getIsValid(),
+            event.getIsVerified(),
+            event.getFraudDetected(),
+            event.getVerificationScore(),
+            event.getFraudScore(),
+            event.getLastUpdated(),
+            event.getMetadata()
+        };
+    }
+
+    /**
+     * First and last stream sequence numbers, so a retry of the same records
+     * gets the same ID and a bisected retry does not.
+     */
+    private static String batchId(List<DynamodbEvent.DynamodbStreamRecord> records) {
+        String first = records.get(0).getDynamodb().getSequenceNumber();
+        String last = records.get(records.size() - 1).getDynamodb().getSequenceNumber();
+        if (first == null || last == null) {
+            return UUID.randomUUID().toString().substring(0, 8);
+        }
+        return first + "-" + last;
+    }
+
+    // Unknown or legacy statuses are exported under kycStatus=UNKNOWN rather than failing the shard
+    private static KYCStatus status(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return KYCStatus.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Exporting record with unknown kycStatus {} as UNKNOWN", value);
+            return null;
+        }
+    }
+
+    private static String partitionDate(KYCEvent event, Date approximateCreation) {
+        String lastUpdated = event.getLastUpdated();
+        if (lastUpdated != null && lastUpdated.length() >= 10) {
+            return lastUpdated.substring(0, 10);
+        }
+        Instant created = approximateCreation != null ? approximateCreation.toInstant() : Instant.now();
+        return created.atZone(ZoneOffset.UTC).toLocalDate().toString();
+    }
+
+    private static String string(Map<String, AttributeValue> image, String name) {
+        AttributeValue value = image.get(name);
+        return value == null ? null : value.getS();
+    }
+
+    private static Boolean bool(Map<String, AttributeValue> image, String name) {
+        AttributeValue value = image.get(name);
+        return value == null ? null : value.getBOOL();
+    }
+
+    private static Double number(Map<String, AttributeValue> image, String name) {
+        AttributeValue value = image.get(name);
+        return value == null || value.getN() == null ? null : Double.valueOf(value.getN());
+    }
+}
@@ -0,0 +1,29 @@
+package com.kyc.analytics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes analytics files under a local directory using the same key layout as
+ * S3. Used as a stand-in for the bucket when running the exporter offline.
+ */
+public class LocalFileSink implements ObjectSink {
+    private final Path root;
+
+    public LocalFileSink(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) throws IOException {
+        Path target = root.resolve(key);
+        Files.createDirectories(target.getParent());
+        Files.write(target, content);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(root.resolve(key));
+    }
+}
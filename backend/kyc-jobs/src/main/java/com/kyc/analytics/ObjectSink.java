@@ -0,0 +1,14 @@
+package com.kyc.analytics;
+
+import java.io.IOException;
+
+/**
+ * Destination for finished analytics files. Implemented by S3 in Lambda and by
+ * a local directory for offline runs.
+ */
+public interface ObjectSink {
+
+    void put(String key, byte[] content, String contentType) throws IOException;
+
+    void delete(String key) throws IOException;
+}
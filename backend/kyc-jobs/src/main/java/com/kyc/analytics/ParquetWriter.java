@@ -0,0 +1,354 @@
+package com.kyc.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ParquetWriter
+ *
+ * Builds a Parquet file in memory for a flat schema of optional columns:
+ * - Columns are UTF-8 strings, booleans or doubles, which covers the
+ *   attributes of a KYC record
+ * - One row group per file; each column is split into PLAIN-encoded,
+ *   GZIP-compressed data pages of about {@link #DEFAULT_PAGE_BYTES}, and a
+ *   page is compressed as soon as it is full
+ * - Nulls are stored as definition levels, so missing attributes read back as null
+ *
+ * Written directly against the Parquet format rather than parquet-mr, which
+ * would bring the Hadoop dependency tree into the Lambda package. Not
+ * thread-safe.
+ */
+public class ParquetWriter {
+    static final int DEFAULT_PAGE_BYTES = 1024 * 1024;
+
+    private static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+
+    // Enum values from parquet.thrift
+    private static final int PAGE_TYPE_DATA = 0;
+    private static final int ENCODING_PLAIN = 0;
+    private static final int ENCODING_RLE = 3;
+    private static final int CODEC_GZIP = 2;
+    private static final int REPETITION_OPTIONAL = 1;
+    private static final int CONVERTED_TYPE_UTF8 = 0;
+
+    /** Supported column types, with their Parquet physical type. */
+    public enum ColumnType {
+        BOOLEAN(0),
+        DOUBLE(5),
+        STRING(6);
+
+        private final int physicalType;
+
+        ColumnType(int physicalType) {
+            this.physicalType = physicalType;
+        }
+    }
+
+    public record Column(String name, ColumnType type) {
+    }
+
+    private final List<Column> columns;
+    private final ColumnBuffer[] buffers;
+    private int rows;
+
+    public ParquetWriter(List<Column> columns) {
+        this(columns, DEFAULT_PAGE_BYTES);
+    }
+
+    /**
+     * @param pageBytes uncompressed size at which a column's current page is finished
+     */
+    ParquetWriter(List<Column> columns, int pageBytes) {
+        this.columns = List.copyOf(columns);
+        this.buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer(columns.get(i).type(), pageBytes);
+        }
+    }
+
+    /**
+     * Appends one row; values are in column order and null marks a missing value.
+     */
+    public void addRow(Object... values) {
+        if (values.length != buffers.length) {
+            throw new IllegalArgumentException(String.format("Expected %d values, got %d", buffers.length, values.length));
+        }
+        for (int i = 0; i < values.length; i++) {
+            buffers[i].add(values[i]);
+        }
+        rows++;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the uncompressed size of the buffered values
+     */
+    public long getBufferedBytes() {
+        long size = 0;
+        for (ColumnBuffer buffer : buffers) {
+            size += buffer.size();
+        }
+        return size;
+    }
+
+    /**
+     * Encodes the buffered rows as a complete Parquet file. Can be called again
+     * if writing the result fails.
+     */
+    public byte[] toByteArray() throws IOException {
+        ByteArrayOutputStream file = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, getBufferedBytes() / 2 + 1024));
+        file.write(MAGIC);
+
+        List<ChunkInfo> chunks = new ArrayList<>(buffers.length);
+        for (ColumnBuffer buffer : buffers) {
+            long offset = file.size();
+            long uncompressedSize = 0;
+            long compressedSize = 0;
+            for (Page page : buffer.pages()) {
+                CompactProtocolWriter header = new CompactProtocolWriter();
+                header.structBegin();
+                header.i32Field(1, PAGE_TYPE_DATA);
+                header.i32Field(2, page.uncompressedSize());
+                header.i32Field(3, page.compressed().length);
+                header.structField(5);
+                header.i32Field(1, page.rows());
+                header.i32Field(2, ENCODING_PLAIN);
+                header.i32Field(3, ENCODING_RLE);
+                header.i32Field(4, ENCODING_RLE);
+                header.structEnd();
+                header.structEnd();
+                byte[] headerBytes = header.toByteArray();
+
+                file.write(headerBytes);
+                file.write(page.compressed());
+                uncompressedSize += headerBytes.length + page.uncompressedSize();
+                compressedSize += headerBytes.length + page.compressed().length;
+            }
+            chunks.add(new ChunkInfo(offset, uncompressedSize, compressedSize));
+        }
+
+        byte[] footer = fileMetaData(chunks);
+        file.write(footer);
+        file.write(footer.length & 0xFF);
+        file.write((footer.length >>> 8) & 0xFF);
+        file.write((footer.length >>> 16) & 0xFF);
+        file.write((footer.length >>> 24) & 0xFF);
+        file.write(MAGIC);
+        return file.toByteArray();
+    }
+
+    private byte[] fileMetaData(List<ChunkInfo> chunks) {
+        CompactProtocolWriter footer = new CompactProtocolWriter();
+        footer.structBegin();
+        footer.i32Field(1, 1);
+
+        footer.listField(2, CompactProtocolWriter.STRUCT, columns.size() + 1);
+        footer.structBegin();
+        footer.stringField(4, "schema");
+        footer.i32Field(5, columns.size());
+        footer.structEnd();
+        for (Column column : columns) {
+            footer.structBegin();
+            footer.i32Field(1, column.type().physicalType);
+            footer.i32Field(3, REPETITION_OPTIONAL);
+            footer.stringField(4, column.name());
+            if (column.type() == ColumnType.STRING) {
+                footer.i32Field(6, CONVERTED_TYPE_UTF8);
+            }
+            footer.structEnd();
+        }
+
+        footer.i64Field(3, rows);
+
+        long uncompressedSize = 0;
+        long compressedSize = 0;
+        for (ChunkInfo chunk : chunks) {
+            uncompressedSize += chunk.uncompressedSize();
+            compressedSize += chunk.compressedSize();
+        }
+        footer.listField(4, CompactProtocolWriter.STRUCT, 1);
+        footer.structBegin();
+        footer.listField(1, CompactProtocolWriter.STRUCT, chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            ChunkInfo chunk = chunks.get(i);
+            Column column = columns.get(i);
+            footer.structBegin();
+            footer.i64Field(2, chunk.offset());
+            footer.structField(3);
+            footer.i32Field(1, column.type().physicalType);
+            footer.listField(2, CompactProtocolWriter.I32, 2);
+            footer.i32(ENCODING_PLAIN);
+            footer.i32(ENCODING_RLE);
+            footer.listField(3, CompactProtocolWriter.BINARY, 1);
+            footer.string(column.name());
+            footer.i32Field(4, CODEC_GZIP);
+            footer.i64Field(5, rows);
+            footer.i64Field(6, chunk.uncompressedSize());
+            footer.i64Field(7, chunk.compressedSize());
+            footer.i64Field(9, chunk.offset());
+            footer.structEnd();
+            footer.structEnd();
+        }
+        footer.i64Field(2, uncompressedSize);
+        footer.i64Field(3, rows);
+        footer.i64Field(5, chunks.isEmpty() ? MAGIC.length : chunks.get(0).offset());
+        footer.i64Field(6, compressedSize);
+        footer.structEnd();
+
+        footer.stringField(6, "kyc-jobs");
+        footer.structEnd();
+        return footer.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 8 * 1024)) {
+            gzip.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private record ChunkInfo(long offset, long uncompressedSize, long compressedSize) {
+    }
+
+    private record Page(int rows, int uncompressedSize, byte[] compressed) {
+    }
+
+    /**
+     * Values of one column: finished pages, already compressed, and the page
+     * being filled. Definition levels are run-length encoded as rows arrive;
+     * values are kept PLAIN-encoded, except booleans, which are bit-packed when
+     * the page is encoded.
+     */
+    private static final class ColumnBuffer {
+        private final ColumnType type;
+        private final int pageBytes;
+        private final List<Page> finishedPages = new ArrayList<>();
+        private long finishedBytes;
+
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream(4 * 1024);
+        private final ByteArrayOutputStream levelRuns = new ByteArrayOutputStream(64);
+        private final BitSet booleans = new BitSet();
+        private int booleanCount;
+        private int runLevel;
+        private int runLength;
+        private int pageRows;
+
+        ColumnBuffer(ColumnType type, int pageBytes) {
+            this.type = type;
+            this.pageBytes = pageBytes;
+        }
+
+        void add(Object value) {
+            int level = value == null ? 0 : 1;
+            if (runLength > 0 && level != runLevel) {
+                writeRun(levelRuns, runLevel, runLength);
+                runLength = 0;
+            }
+            runLevel = level;
+            runLength++;
+            pageRows++;
+            if (value != null) {
+                switch (type) {
+                    case BOOLEAN -> booleans.set(booleanCount++, (Boolean) value);
+                    case DOUBLE -> writeLongLE(values, Double.doubleToLongBits(((Number) value).doubleValue()));
+                    case STRING -> {
+                        byte[] utf8 = value.toString().getBytes(StandardCharsets.UTF_8);
+                        writeIntLE(values, utf8.length);
+                        values.writeBytes(utf8);
+                    }
+                }
+            }
+            if (pageSize() >= pageBytes) {
+                finishPage();
+            }
+        }
+
+        long size() {
+            return finishedBytes + pageSize();
+        }
+
+        /**
+         * The finished pages followed by the current one, which stays open. A
+         * column without rows gets one empty page.
+         */
+        List<Page> pages() throws IOException {
+            List<Page> pages = new ArrayList<>(finishedPages.size() + 1);
+            pages.addAll(finishedPages);
+            if (pageRows > 0 || pages.isEmpty()) {
+                pages.add(encodePage());
+            }
+            return pages;
+        }
+
+        private long pageSize() {
+            return values.size() + levelRuns.size() + (booleanCount + 7) / 8;
+        }
+
+        private void finishPage() {
+            try {
+                Page page = encodePage();
+                finishedPages.add(page);
+                finishedBytes += page.uncompressedSize();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            values.reset();
+            levelRuns.reset();
+            booleans.clear();
+            booleanCount = 0;
+            runLength = 0;
+            pageRows = 0;
+        }
+
+        /**
+         * Data page body: length-prefixed definition levels followed by the values.
+         */
+        private Page encodePage() throws IOException {
+            ByteArrayOutputStream levels = new ByteArrayOutputStream(levelRuns.size() + 8);
+            levels.writeBytes(levelRuns.toByteArray());
+            if (runLength > 0) {
+                writeRun(levels, runLevel, runLength);
+            }
+
+            ByteArrayOutputStream page = new ByteArrayOutputStream(levels.size() + values.size() + booleanCount / 8 + 8);
+            writeIntLE(page, levels.size());
+            page.writeBytes(levels.toByteArray());
+            if (type == ColumnType.BOOLEAN) {
+                page.writeBytes(Arrays.copyOf(booleans.toByteArray(), (booleanCount + 7) / 8));
+            } else {
+                page.writeBytes(values.toByteArray());
+            }
+            byte[] body = page.toByteArray();
+            return new Page(pageRows, body.length, gzip(body));
+        }
+
+        // RLE run of the hybrid encoding at bit width 1: varint(count << 1), then the value in one byte
+        private static void writeRun(ByteArrayOutputStream out, int level, int count) {
+            CompactProtocolWriter.writeVarint(out, (long) count << 1);
+            out.write(level);
+        }
+
+        private static void writeIntLE(ByteArrayOutputStream out, int value) {
+            for (int shift = 0; shift < 32; shift += 8) {
+                out.write((value >>> shift) & 0xFF);
+            }
+        }
+
+        private static void writeLongLE(ByteArrayOutputStream out, long value) {
+            for (int shift = 0; shift < 64; shift += 8) {
+                out.write((int) ((value >>> shift) & 0xFF));
+            }
+        }
+    }
+}
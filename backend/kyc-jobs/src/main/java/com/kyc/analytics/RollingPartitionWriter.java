@@ -0,0 +1,137 @@
+package com.kyc.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RollingPartitionWriter
+ *
+ * Buffers the rows of one batch of records per partition and hands finished
+ * Parquet files to an {@link ObjectSink}:
+ * - A part file is rolled once its buffered size reaches the file limit
+ * - When the total buffered size exceeds the memory limit, the largest part
+ *   is rolled early, so memory stays bounded regardless of partition count
+ * - {@link #flush()} rolls the remaining parts once the batch is done
+ *
+ * Part keys are built from the batch ID and a per-partition counter, so a
+ * batch that is retried with the same records overwrites its own files
+ * instead of adding duplicates. {@link #abort()} deletes the files already
+ * written for a failed batch. Not thread-safe; use one writer per batch.
+ */
+public class RollingPartitionWriter {
+    private static final Logger logger = LoggerFactory.getLogger(RollingPartitionWriter.class);
+
+    private final ObjectSink sink;
+    private final String prefix;
+    private final List<ParquetWriter.Column> columns;
+    private final String batchId;
+    private final long maxFileBytes;
+    private final long maxBufferedBytes;
+
+    private final Map<String, ParquetWriter> openParts = new HashMap<>();
+    private final Map<String, Integer> partCounts = new HashMap<>();
+    private final List<String> writtenKeys = new ArrayList<>();
+    private long bufferedBytes;
+
+    public RollingPartitionWriter(ObjectSink sink, String prefix, List<ParquetWriter.Column> columns, String batchId,
+                                  long maxFileBytes, long maxBufferedBytes) {
+        this.sink = sink;
+        this.prefix = prefix;
+        this.columns = columns;
+        this.batchId = batchId;
+        this.maxFileBytes = maxFileBytes;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * Appends one record to a partition, e.g. {@code date=2024-06-01/kycStatus=VERIFIED}.
+     */
+    public void write(String partition, Object... row) throws IOException {
+        ParquetWriter part = openParts.computeIfAbsent(partition, p -> new ParquetWriter(columns));
+        long before = part.getBufferedBytes();
+        part.addRow(row);
+        bufferedBytes += part.getBufferedBytes() - before;
+
+        if (part.getBufferedBytes() >= maxFileBytes) {
+            roll(partition);
+        }
+        while (bufferedBytes > maxBufferedBytes && !openParts.isEmpty()) {
+            roll(largestPartition());
+        }
+    }
+
+    /**
+     * Rolls every open part.
+     */
+    public void flush() throws IOException {
+        for (String partition : openParts.keySet().toArray(new String[0])) {
+            roll(partition);
+        }
+    }
+
+    /**
+     * Drops the open parts and deletes the files already written for this
+     * batch. Deletion is best effort; a file left behind is overwritten when
+     * the batch is retried with the same records.
+     */
+    public void abort() {
+        openParts.clear();
+        bufferedBytes = 0;
+        for (String key : writtenKeys) {
+            try {
+                sink.delete(key);
+            } catch (Exception e) {
+                logger.warn("Could not delete {} of failed batch {}: {}", key, batchId, e.toString());
+            }
+        }
+        writtenKeys.clear();
+    }
+
+    public int getOpenParts() {
+        return openParts.size();
+    }
+
+    public long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    public int getFilesWritten() {
+        return writtenKeys.size();
+    }
+
+    public List<String> getWrittenKeys() {
+        return List.copyOf(writtenKeys);
+    }
+
+    private void roll(String partition) throws IOException {
+        ParquetWriter part = openParts.remove(partition);
+        bufferedBytes -= part.getBufferedBytes();
+        if (part.getRows() == 0) {
+            return;
+        }
+        int index = partCounts.merge(partition, 1, Integer::sum) - 1;
+        String key = String.format("%s/%s/part-%s-%03d.parquet", prefix, partition, batchId, index);
+        byte[] content = part.toByteArray();
+        sink.put(key, content, "application/vnd.apache.parquet");
+        writtenKeys.add(key);
+        logger.info("Wrote {} records ({} bytes) to {}", part.getRows(), content.length, key);
+    }
+
+    private String largestPartition() {
+        String largest = null;
+        long largestSize = -1;
+        for (Map.Entry<String, ParquetWriter> entry : openParts.entrySet()) {
+            if (entry.getValue().getBufferedBytes() > largestSize) {
+                largest = entry.getKey();
+                largestSize = entry.getValue().getBufferedBytes();
+            }
+        }
+        return largest;
+    }
+}
@@ -0,0 +1,279 @@
+package com.kyc.analytics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * TraceLatencyAnalyzer
+ *
+ * Latency SLO report over the spans exported by the agents (OTLP/JSON lines,
+ * plain or gzip, from the local trace file or the agents' CloudWatch Logs):
+ * - Percentiles for every agent invocation and phase span, listed in
+ *   workflow order
+ * - Handoff latency between consecutive agents (S3 notification, EventBridge,
+ *   Step Functions), where queueing and cold starts outside the agents show up
+ * - End-to-end latency from upload to the end of compliance reporting for
+ *   traces that reached it, and where the other traces stopped
+ * - SLO breach rate, with the agent or handoff that took longest in each
+ *   breaching trace
+ *
+ * Start times come from the agents' wall clocks, so handoffs shorter than the
+ * clock skew between Lambda hosts are reported as zero.
+ *
+ * Usage: TraceLatencyAnalyzer [--slo-ms N] [--output report.json] file...
+ */
+public class TraceLatencyAnalyzer {
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final String FIRST_STAGE = "DocumentValidation";
+    private static final String LAST_STAGE = "ComplianceReporting";
+    private static final String UPLOAD_TIME = "kyc.upload.time_unix_nano";
+    private static final int KIND_SERVER = 2;
+    private static final int STATUS_ERROR = 2;
+
+    private final Map<String, List<SpanRecord>> spansByTrace = new HashMap<>();
+    private final long sloNanos;
+
+    public TraceLatencyAnalyzer(long sloMillis) {
+        this.sloNanos = sloMillis * 1_000_000L;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long sloMillis = 60_000;
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--slo-ms" -> sloMillis = Long.parseLong(args[++i]);
+                case "--output" -> output = Path.of(args[++i]);
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+
+        TraceLatencyAnalyzer analyzer = new TraceLatencyAnalyzer(sloMillis);
+        for (Path input : inputs) {
+            analyzer.read(input);
+        }
+
+        String json = objectMapper.writeValueAsString(analyzer.report());
+        if (output != null) {
+            Files.writeString(output, json);
+        }
+        System.out.println(json);
+    }
+
+    /**
+     * Adds all spans in one exported file.
+     */
+    public void read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                 path.toString().endsWith(".gz") ? new GZIPInputStream(file) : file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Log exports also hold the agents' other output
+                if (line.startsWith("{") && line.contains("\"resourceSpans\"")) {
+                    addRequest(objectMapper.readTree(line));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the spans of one ExportTraceServiceRequest.
+     */
+    public void addRequest(JsonNode request) {
+        for (JsonNode resourceSpans : request.path("resourceSpans")) {
+            for (JsonNode scopeSpans : resourceSpans.path("scopeSpans")) {
+                for (JsonNode span : scopeSpans.path("spans")) {
+                    Long uploadTime = null;
+                    for (JsonNode attribute : span.path("attributes")) {
+                        if (UPLOAD_TIME.equals(attribute.path("key").asText())) {
+                            uploadTime = Long.parseLong(attribute.path("value").path("intValue").asText());
+                        }
+                    }
+                    SpanRecord record = new SpanRecord(
+                        span.path("name").asText(),
+                        span.path("kind").asInt(),
+                        Long.parseLong(span.path("startTimeUnixNano").asText()),
+                        Long.parseLong(span.path("endTimeUnixNano").asText()),
+                        uploadTime,
+                        span.path("status").path("code").asInt() == STATUS_ERROR);
+                    spansByTrace.computeIfAbsent(span.path("traceId").asText(), id -> new ArrayList<>()).add(record);
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, StageStats> stages = new HashMap<>();
+        List<Long> endToEnd = new ArrayList<>();
+        Map<String, Long> stoppedAt = new TreeMap<>();
+        Map<String, Long> breachStages = new TreeMap<>();
+
+        for (List<SpanRecord> spans : spansByTrace.values()) {
+            spans.sort(Comparator.comparingLong(SpanRecord::start));
+            long origin = spans.get(0).start();
+            for (SpanRecord span : spans) {
+                if (span.uploadTime() != null) {
+                    origin = Math.min(origin, span.uploadTime());
+                }
+            }
+
+            // Agent invocations and the handoffs between them partition the trace
+            Map<String, Long> segments = new LinkedHashMap<>();
+            SpanRecord previous = null;
+            for (SpanRecord span : spans) {
+                stages.computeIfAbsent(span.name(), StageStats::new).add(span, origin);
+                if (span.kind() != KIND_SERVER) {
+                    continue;
+                }
+                segments.merge(span.name(), span.duration(), Long::sum);
+                if (previous == null && span.uploadTime() != null && FIRST_STAGE.equals(span.name())) {
+                    addHandoff(stages, segments, "Upload -> " + span.name(), span.uploadTime(), span.start(), origin);
+                } else if (previous != null) {
+                    addHandoff(stages, segments, previous.name() + " -> " + span.name(),
+                        previous.end(), span.start(), origin);
+                }
+                previous = span;
+            }
+
+            if (previous == null) {
+                continue;
+            }
+            if (!LAST_STAGE.equals(previous.name())) {
+                stoppedAt.merge(previous.name(), 1L, Long::sum);
+                continue;
+            }
+            long latency = previous.end() - origin;
+            endToEnd.add(latency);
+            if (latency > sloNanos) {
+                String dominant = segments.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(LAST_STAGE);
+                breachStages.merge(dominant, 1L, Long::sum);
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("sloMs", sloNanos / 1_000_000);
+        report.put("traces", spansByTrace.size());
+        report.put("completedTraces", endToEnd.size());
+        report.put("incompleteTracesByLastStage", stoppedAt);
+
+        long breaches = endToEnd.stream().filter(latency -> latency > sloNanos).count();
+        Map<String, Object> endToEndReport = summarize(endToEnd);
+        endToEndReport.put("sloBreaches", breaches);
+        endToEndReport.put("sloBreachRate", endToEnd.isEmpty() ? 0.0 : round((double) breaches / endToEnd.size()));
+        endToEndReport.put("slowestStageInBreaches", breachStages);
+        report.put("endToEnd", endToEndReport);
+
+        // Workflow order: stages sorted by how far into the trace they usually start
+        Map<String, Object> stageReport = new LinkedHashMap<>();
+        stages.values().stream()
+            .sorted(Comparator.comparingDouble(StageStats::meanOffset).thenComparing(StageStats::name))
+            .forEach(stage -> stageReport.put(stage.name(), stage.toReport()));
+        report.put("stages", stageReport);
+        return report;
+    }
+
+    private static void addHandoff(Map<String, StageStats> stages, Map<String, Long> segments,
+                                   String name, long from, long to, long origin) {
+        long gap = Math.max(0, to - from);
+        stages.computeIfAbsent(name, StageStats::new).add(gap, from - origin, false);
+        segments.merge(name, gap, Long::sum);
+    }
+
+    private static Map<String, Object> summarize(List<Long> durations) {
+        long[] sorted = durations.stream().mapToLong(Long::longValue).sorted().toArray();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", sorted.length);
+        if (sorted.length == 0) {
+            return summary;
+        }
+        summary.put("p50Ms", toMillis(percentile(sorted, 0.50)));
+        summary.put("p90Ms", toMillis(percentile(sorted, 0.90)));
+        summary.put("p95Ms", toMillis(percentile(sorted, 0.95)));
+        summary.put("p99Ms", toMillis(percentile(sorted, 0.99)));
+        summary.put("maxMs", toMillis(sorted[sorted.length - 1]));
+        summary.put("meanMs", toMillis(Arrays.stream(sorted).sum() / sorted.length));
+        return summary;
+    }
+
+    // Nearest-rank, as in LatencyTracker
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 100_000.0) / 10.0;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+
+    record SpanRecord(String name, int kind, long start, long end, Long uploadTime, boolean error) {
+        long duration() {
+            return Math.max(0, end - start);
+        }
+    }
+
+    private static class StageStats {
+        private final String name;
+        private final List<Long> durations = new ArrayList<>();
+        private long offsetSum;
+        private long errors;
+
+        StageStats(String name) {
+            this.name = name;
+        }
+
+        void add(SpanRecord span, long origin) {
+            add(span.duration(), span.start() - origin, span.error());
+        }
+
+        void add(long duration, long offset, boolean error) {
+            durations.add(duration);
+            offsetSum += offset;
+            if (error) {
+                errors++;
+            }
+        }
+
+        String name() {
+            return name;
+        }
+
+        double meanOffset() {
+            return (double) offsetSum / durations.size();
+        }
+
+        Map<String, Object> toReport() {
+            Map<String, Object> report = summarize(durations);
+            report.put("errors", errors);
+            return report;
+        }
+    }
+}
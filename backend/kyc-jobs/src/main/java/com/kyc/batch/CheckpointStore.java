@@ -0,0 +1,58 @@
+package com.kyc.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.util.Optional;
+
+/**
+ * Stores re-scoring checkpoints as small JSON objects in the document bucket
+ * under {@code batch/rescore/{runId}/segment-{n}.json}, keeping them out of
+ * the KYCRecords table that the run is scanning.
+ */
+public class CheckpointStore {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final S3Client s3Client;
+    private final String bucket;
+
+    public CheckpointStore(S3Client s3Client, String bucket) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+    }
+
+    public Optional<RescoreCheckpoint> load(String runId, int segment) {
+        try {
+            byte[] json = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key(runId, segment))
+                .build()).asByteArray();
+            return Optional.of(objectMapper.readValue(json, RescoreCheckpoint.class));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load checkpoint for segment " + segment, e);
+        }
+    }
+
+    public void save(RescoreCheckpoint checkpoint) {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key(checkpoint.getRunId(), checkpoint.getSegment()))
+                    .contentType("application/json")
+                    .build(),
+                RequestBody.fromBytes(objectMapper.writeValueAsBytes(checkpoint)));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to save checkpoint for segment " + checkpoint.getSegment(), e);
+        }
+    }
+
+    private static String key(String runId, int segment) {
+        return String.format("batch/rescore/%s/segment-%d.json", runId, segment);
+    }
+}
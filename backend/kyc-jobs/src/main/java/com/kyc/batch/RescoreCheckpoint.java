@@ -0,0 +1,176 @@
+package com.kyc.batch;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of one Scan segment within a re-scoring run. Saved after every page
+ * so an interrupted run resumes from the last fully written page. Customers
+ * whose re-score failed are kept for retry, and the segment only completes
+ * once the Scan is done and every retry has succeeded.
+ */
+public class RescoreCheckpoint {
+    @JsonProperty("runId")
+    private String runId;
+
+    @JsonProperty("segment")
+    private int segment;
+
+    @JsonProperty("totalSegments")
+    private int totalSegments;
+
+    // Attribute name -> {"S"|"N"|"B": value}, binary values base64-encoded
+    @JsonProperty("lastEvaluatedKey")
+    private Map<String, Map<String, String>> lastEvaluatedKey;
+
+    @JsonProperty("processed")
+    private long processed;
+
+    @JsonProperty("failed")
+    private long failed;
+
+    // Customer ID -> document URL of customers to re-score again
+    @JsonProperty("retries")
+    private Map<String, String> retries = new LinkedHashMap<>();
+
+    @JsonProperty("scanCompleted")
+    private boolean scanCompleted;
+
+    @JsonProperty("completed")
+    private boolean completed;
+
+    @JsonProperty("updatedAt")
+    private String updatedAt;
+
+    public RescoreCheckpoint() {}
+
+    public static RescoreCheckpoint start(String runId, int segment, int totalSegments) {
+        RescoreCheckpoint checkpoint = new RescoreCheckpoint();
+        checkpoint.runId = runId;
+        checkpoint.segment = segment;
+        checkpoint.totalSegments = totalSegments;
+        checkpoint.updatedAt = Instant.now().toString();
+        return checkpoint;
+    }
+
+    /**
+     * Records a written page and the key to resume the Scan from. Customers
+     * that failed on this page are kept for retry instead of being skipped.
+     */
+    public void advance(Map<String, AttributeValue> nextStartKey, long pageProcessed, Map<String, String> pageFailures) {
+        processed += pageProcessed;
+        failed += pageFailures.size();
+        retries.putAll(pageFailures);
+        if (nextStartKey == null || nextStartKey.isEmpty()) {
+            lastEvaluatedKey = null;
+            scanCompleted = true;
+        } else {
+            lastEvaluatedKey = new HashMap<>();
+            nextStartKey.forEach((name, value) -> lastEvaluatedKey.put(name, encode(name, value)));
+        }
+        updateCompleted();
+    }
+
+    /**
+     * Records a retry pass over the failed customers; those still failing stay queued.
+     */
+    public void retried(long retriedProcessed, Map<String, String> stillFailing) {
+        processed += retriedProcessed;
+        failed += stillFailing.size();
+        retries = new LinkedHashMap<>(stillFailing);
+        updateCompleted();
+    }
+
+    /**
+     * @return the Scan start key to resume from, or null to start at the beginning
+     */
+    @JsonIgnore
+    public Map<String, AttributeValue> getExclusiveStartKey() {
+        if (lastEvaluatedKey == null) {
+            return null;
+        }
+        Map<String, AttributeValue> key = new HashMap<>();
+        lastEvaluatedKey.forEach((name, value) -> key.put(name, decode(name, value)));
+        return key;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public int getSegment() {
+        return segment;
+    }
+
+    public int getTotalSegments() {
+        return totalSegments;
+    }
+
+    public Map<String, Map<String, String>> getLastEvaluatedKey() {
+        return lastEvaluatedKey;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public Map<String, String> getRetries() {
+        return retries;
+    }
+
+    public boolean isScanCompleted() {
+        return scanCompleted;
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Key attributes are always strings, numbers or binary
+    private static Map<String, String> encode(String name, AttributeValue value) {
+        switch (value.type()) {
+            case S:
+                return Map.of("S", value.s());
+            case N:
+                return Map.of("N", value.n());
+            case B:
+                return Map.of("B", Base64.getEncoder().encodeToString(value.b().asByteArray()));
+            default:
+                throw new IllegalArgumentException("Unsupported key attribute type " + value.type() + " for " + name);
+        }
+    }
+
+    private static AttributeValue decode(String name, Map<String, String> value) {
+        if (value.containsKey("S")) {
+            return AttributeValue.builder().s(value.get("S")).build();
+        }
+        if (value.containsKey("N")) {
+            return AttributeValue.builder().n(value.get("N")).build();
+        }
+        if (value.containsKey("B")) {
+            return AttributeValue.builder().b(SdkBytes.fromByteArray(Base64.getDecoder().decode(value.get("B")))).build();
+        }
+        throw new IllegalArgumentException("Unreadable checkpoint key attribute " + name + ": " + value);
+    }
+
+    private void updateCompleted() {
+        completed = scanCompleted && retries.isEmpty();
+        updatedAt = Instant.now().toString();
+    }
+}
@@ -0,0 +1,306 @@
+package com.kyc.batch;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.kyc.agents.FraudDetectionAgent;
+import com.kyc.agents.IdentityVerificationAgent;
+import com.kyc.model.KYCEvent;
+import com.kyc.resilience.AwsClients;
+import com.kyc.util.Env;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RescoringJob
+ *
+ * Re-runs identity verification and fraud scoring over every validated
+ * customer after scoring rules change:
+ * - Reads customers with a parallel-segment DynamoDB Scan
+ * - Scores them on a bounded thread pool using the agents' own scoring logic
+ * - Writes results back with BatchWriteItem, each customer's records together
+ * - Checkpoints each segment after every page so a run can be resumed, keeping
+ *   customers whose scoring failed to retry before the Scan continues
+ *
+ * Input: {"runId": "...", "totalSegments": 16, "segments": [0, 1, ...]}.
+ * Re-invoking with the same runId resumes unfinished segments. The job stops
+ * before the Lambda deadline and reports "complete": false when work remains,
+ * so large runs can be fanned out across segments and re-driven until done.
+ */
+public class RescoringJob implements RequestHandler<Map<String, Object>, Map<String, Object>> {
+    private static final Logger logger = LoggerFactory.getLogger(RescoringJob.class);
+
+    private static final int MAX_BATCH_WRITE = 25;
+    private static final int MAX_WRITE_ATTEMPTS = 8;
+
+    private final DynamoDbClient dynamoDbClient;
+    private final CheckpointStore checkpointStore;
+    private final IdentityVerificationAgent identityAgent;
+    private final FraudDetectionAgent fraudAgent;
+    private final String tableName;
+    private final int defaultTotalSegments;
+    private final int segmentThreads;
+    private final int scoringThreads;
+    private final int pageSize;
+    private final long timeReserveMillis;
+
+    public RescoringJob() {
+        this(AwsClients.dynamoDb(),
+            new CheckpointStore(AwsClients.s3(), System.getenv("DOCUMENT_BUCKET")),
+            new IdentityVerificationAgent(),
+            new FraudDetectionAgent(),
+            System.getenv("TABLE_NAME"),
+            Env.getInt("RESCORE_TOTAL_SEGMENTS", 16),
+            Env.getInt("RESCORE_SEGMENT_THREADS", 4),
+            Env.getInt("RESCORE_SCORING_THREADS", 8),
+            Env.getInt("RESCORE_PAGE_SIZE", 200),
+            Env.getLong("RESCORE_TIME_RESERVE_MS", 60_000));
+    }
+
+    RescoringJob(DynamoDbClient dynamoDbClient, CheckpointStore checkpointStore,
+                 IdentityVerificationAgent identityAgent, FraudDetectionAgent fraudAgent, String tableName,
+                 int defaultTotalSegments, int segmentThreads, int scoringThreads, int pageSize,
+                 long timeReserveMillis) {
+        this.dynamoDbClient = dynamoDbClient;
+        this.checkpointStore = checkpointStore;
+        this.identityAgent = identityAgent;
+        this.fraudAgent = fraudAgent;
+        this.tableName = tableName;
+        this.defaultTotalSegments = defaultTotalSegments;
+        this.segmentThreads = segmentThreads;
+        this.scoringThreads = scoringThreads;
+        this.pageSize = pageSize;
+        this.timeReserveMillis = timeReserveMillis;
+    }
+
+    @Override
+    public Map<String, Object> handleRequest(Map<String, Object> input, Context context) {
+        logger.info("RescoringJob invoked: {}", input);
+
+        String runId = input.containsKey("runId") ? (String) input.get("runId") : "rescore-" + Instant.now().toEpochMilli();
+        int totalSegments = input.containsKey("totalSegments")
+            ? ((Number) input.get("totalSegments")).intValue() : defaultTotalSegments;
+        List<Integer> segments = new ArrayList<>();
+        if (input.containsKey("segments")) {
+            for (Object segment : (List<?>) input.get("segments")) {
+                segments.add(((Number) segment).intValue());
+            }
+        } else {
+            for (int segment = 0; segment < totalSegments; segment++) {
+                segments.add(segment);
+            }
+        }
+
+        ExecutorService segmentPool = Executors.newFixedThreadPool(Math.max(1, Math.min(segmentThreads, segments.size())));
+        ExecutorService scoringPool = Executors.newFixedThreadPool(scoringThreads);
+        try {
+            Map<Integer, Future<RescoreCheckpoint>> results = new HashMap<>();
+            for (int segment : segments) {
+                results.put(segment, segmentPool.submit(
+                    () -> processSegment(runId, segment, totalSegments, scoringPool, context)));
+            }
+
+            long processed = 0;
+            long failed = 0;
+            List<Integer> remaining = new ArrayList<>();
+            for (Map.Entry<Integer, Future<RescoreCheckpoint>> result : results.entrySet()) {
+                try {
+                    RescoreCheckpoint checkpoint = result.getValue().get();
+                    processed += checkpoint.getProcessed();
+                    failed += checkpoint.getFailed();
+                    if (!checkpoint.isCompleted()) {
+                        remaining.add(result.getKey());
+                    }
+                } catch (ExecutionException e) {
+                    logger.error("Segment {} of run {} failed", result.getKey(), runId, e.getCause());
+                    remaining.add(result.getKey());
+                }
+            }
+
+            Map<String, Object> output = new HashMap<>();
+            output.put("runId", runId);
+            output.put("totalSegments", totalSegments);
+            output.put("segments", remaining);
+            output.put("processed", processed);
+            output.put("failed", failed);
+            output.put("complete", remaining.isEmpty());
+            logger.info("Rescoring run {} - processed: {}, failed: {}, segments remaining: {}",
+                runId, processed, failed, remaining);
+            return output;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Rescoring run interrupted", e);
+        } finally {
+            segmentPool.shutdownNow();
+            scoringPool.shutdownNow();
+        }
+    }
+
+    private RescoreCheckpoint processSegment(String runId, int segment, int totalSegments,
+                                             ExecutorService scoringPool, Context context) throws InterruptedException {
+        RescoreCheckpoint checkpoint = checkpointStore.load(runId, segment)
+            .orElseGet(() -> RescoreCheckpoint.start(runId, segment, totalSegments));
+        if (checkpoint.isCompleted()) {
+            logger.info("Segment {} of run {} already complete", segment, runId);
+            return checkpoint;
+        }
+
+        // Customers that failed on an earlier page or run go first
+        if (!checkpoint.getRetries().isEmpty()) {
+            logger.info("Retrying {} customers in segment {} of run {}", checkpoint.getRetries().size(), segment, runId);
+            ScoredPage retried = rescoreAll(runId, checkpoint.getRetries(), segment, scoringPool);
+            batchWrite(retried.writes());
+            checkpoint.retried(retried.processed(), retried.failures());
+            checkpointStore.save(checkpoint);
+        }
+
+        Map<String, String> names = Map.of("#eventType", "eventType", "#kycStatus", "kycStatus");
+        Map<String, AttributeValue> values = Map.of(
+            ":validated", AttributeValue.builder().s("Document.Validated").build(),
+            ":status", AttributeValue.builder().s(KYCEvent.KYCStatus.VALIDATED.name()).build());
+
+        while (!checkpoint.isScanCompleted()) {
+            if (context != null && context.getRemainingTimeInMillis() < timeReserveMillis) {
+                logger.info("Stopping segment {} of run {} before Lambda deadline", segment, runId);
+                break;
+            }
+            // Keeps the checkpoint bounded when the scoring providers are down
+            if (checkpoint.getRetries().size() >= pageSize) {
+                logger.warn("Stopping segment {} of run {} with {} customers awaiting retry",
+                    segment, runId, checkpoint.getRetries().size());
+                break;
+            }
+
+            ScanResponse page = dynamoDbClient.scan(ScanRequest.builder()
+                .tableName(tableName)
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .filterExpression("#eventType = :validated AND #kycStatus = :status")
+                .projectionExpression("customerId, documentUrl")
+                .expressionAttributeNames(names)
+                .expressionAttributeValues(values)
+                .exclusiveStartKey(checkpoint.getExclusiveStartKey())
+                .limit(pageSize)
+                .build());
+
+            Map<String, String> customers = new LinkedHashMap<>();
+            for (Map<String, AttributeValue> item : page.items()) {
+                customers.put(item.get("customerId").s(),
+                    item.containsKey("documentUrl") ? item.get("documentUrl").s() : null);
+            }
+            ScoredPage scored = rescoreAll(runId, customers, segment, scoringPool);
+            batchWrite(scored.writes());
+
+            checkpoint.advance(page.lastEvaluatedKey(), scored.processed(), scored.failures());
+            checkpointStore.save(checkpoint);
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Scores each customer and collects their writes. A customer either gets all
+     * of their writes or, if any scoring step failed, none of them and a place in
+     * the returned failures.
+     */
+    private ScoredPage rescoreAll(String runId, Map<String, String> customers, int segment,
+                                  ExecutorService scoringPool) throws InterruptedException {
+        Map<String, Future<List<WriteRequest>>> scored = new LinkedHashMap<>();
+        customers.forEach((customerId, documentUrl) ->
+            scored.put(customerId, scoringPool.submit(() -> rescore(runId, customerId, documentUrl))));
+
+        List<List<WriteRequest>> writes = new ArrayList<>(scored.size());
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<List<WriteRequest>>> result : scored.entrySet()) {
+            try {
+                writes.add(result.getValue().get());
+            } catch (ExecutionException e) {
+                failures.put(result.getKey(), customers.get(result.getKey()));
+                logger.warn("Rescoring failed for a customer in segment {}: {}", segment, e.getCause().toString());
+            }
+        }
+        return new ScoredPage(writes, writes.size(), failures);
+    }
+
+    private List<WriteRequest> rescore(String runId, String customerId, String documentUrl) {
+        List<WriteRequest> writes = new ArrayList<>(2);
+        KYCEvent identity = identityAgent.score(customerId, documentUrl);
+        identity.setMetadata(identity.getMetadata() + " (rescore run " + runId + ")");
+        writes.add(put(identityAgent.toItem(identity)));
+        if (identity.getIsVerified()) {
+            KYCEvent fraud = fraudAgent.score(customerId, documentUrl);
+            fraud.setMetadata(fraud.getMetadata() + " (rescore run " + runId + ")");
+            writes.add(put(fraudAgent.toItem(fraud)));
+        } else {
+            // A fraud result from before the rescore no longer applies to an unverified identity
+            writes.add(WriteRequest.builder().deleteRequest(DeleteRequest.builder()
+                .key(Map.of(
+                    "customerId", AttributeValue.builder().s(customerId).build(),
+                    "eventType", AttributeValue.builder().s("Fraud.Checked").build()))
+                .build()).build());
+        }
+        return writes;
+    }
+
+    private static WriteRequest put(Map<String, AttributeValue> item) {
+        return WriteRequest.builder().putRequest(PutRequest.builder().item(item).build()).build();
+    }
+
+    /**
+     * Writes each customer's requests in the same BatchWriteItem call, so their
+     * identity and fraud records are replaced together.
+     */
+    private void batchWrite(List<List<WriteRequest>> customerWrites) throws InterruptedException {
+        List<WriteRequest> batch = new ArrayList<>(MAX_BATCH_WRITE);
+        for (List<WriteRequest> writes : customerWrites) {
+            if (batch.size() + writes.size() > MAX_BATCH_WRITE) {
+                writeBatch(batch);
+                batch = new ArrayList<>(MAX_BATCH_WRITE);
+            }
+            batch.addAll(writes);
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<WriteRequest> batch) throws InterruptedException {
+        List<WriteRequest> pending = batch;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > MAX_WRITE_ATTEMPTS) {
+                throw new RuntimeException(String.format("%d items still unprocessed after %d attempts",
+                    pending.size(), MAX_WRITE_ATTEMPTS));
+            }
+            if (attempt > 1) {
+                TimeUnit.MILLISECONDS.sleep(Math.min(2_000L, 50L << attempt));
+            }
+            BatchWriteItemResponse response = dynamoDbClient.batchWriteItem(BatchWriteItemRequest.builder()
+                .requestItems(Map.of(tableName, pending))
+                .build());
+            pending = response.unprocessedItems().getOrDefault(tableName, List.of());
+        }
+    }
+
+    private record ScoredPage(List<List<WriteRequest>> writes, long processed, Map<String, String> failures) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.kyc.replay;
+
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+
+/**
+ * Outcome of replaying one case through the workflow. Steps after the one the
+ * workflow stopped at are null, as they never run.
+ */
+public record ReplayCase(KYCEvent validation, KYCEvent verification, KYCEvent fraud,
+                         KYCStatus finalStatus, String stoppedAt) {
+}
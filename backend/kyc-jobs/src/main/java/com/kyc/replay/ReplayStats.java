@@ -0,0 +1,68 @@
+package com.kyc.replay;
+
+import com.kyc.model.KYCEvent.KYCStatus;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mutable accumulator for one replay partition. Each parallel stream worker
+ * fills its own instance and the instances are merged at the end, so no
+ * counters are shared between threads. Nothing here depends on the order of
+ * cases or merges, so a replay reports the same result at any parallelism.
+ */
+public class ReplayStats {
+    private final ScoreDistribution validationScores = new ScoreDistribution();
+    private final ScoreDistribution verificationScores = new ScoreDistribution();
+    private final ScoreDistribution fraudScores = new ScoreDistribution();
+    private final Map<KYCStatus, Long> outcomes = new EnumMap<>(KYCStatus.class);
+    private final Map<String, Long> stoppedAt = new TreeMap<>();
+    private long cases;
+
+    public void accept(ReplayCase result) {
+        cases++;
+        outcomes.merge(result.finalStatus(), 1L, Long::sum);
+        stoppedAt.merge(result.stoppedAt(), 1L, Long::sum);
+        record(validationScores, result.validation().getVerificationScore());
+        if (result.verification() != null) {
+            record(verificationScores, result.verification().getVerificationScore());
+        }
+        if (result.fraud() != null) {
+            record(fraudScores, result.fraud().getFraudScore());
+        }
+    }
+
+    public void merge(ReplayStats other) {
+        cases += other.cases;
+        other.outcomes.forEach((status, count) -> outcomes.merge(status, count, Long::sum));
+        other.stoppedAt.forEach((stage, count) -> stoppedAt.merge(stage, count, Long::sum));
+        validationScores.merge(other.validationScores);
+        verificationScores.merge(other.verificationScores);
+        fraudScores.merge(other.fraudScores);
+    }
+
+    public long getCases() {
+        return cases;
+    }
+
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("cases", cases);
+        report.put("outcomes", outcomes);
+        report.put("stoppedAt", stoppedAt);
+        Map<String, Object> distributions = new LinkedHashMap<>();
+        distributions.put("validationScore", validationScores.toReport());
+        distributions.put("verificationScore", verificationScores.toReport());
+        distributions.put("fraudScore", fraudScores.toReport());
+        report.put("distributions", distributions);
+        return report;
+    }
+
+    private static void record(ScoreDistribution distribution, Double score) {
+        if (score != null) {
+            distribution.add(score);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.kyc.replay;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Distribution of scores in [0, 1] kept as a fixed 100-bin histogram, so
+ * partial results from parallel replay partitions merge exactly. Percentiles
+ * are reported at bin resolution (0.01). The sum behind the mean is kept in
+ * fixed point (1e-9 units), so it does not depend on the order in which
+ * scores are added or partitions merged.
+ */
+public class ScoreDistribution {
+    private static final int BINS = 100;
+    private static final int REPORTED_BUCKETS = 10;
+    private static final double SUM_SCALE = 1e9;
+
+    private final long[] bins = new long[BINS];
+    private long count;
+    private long scaledSum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double score) {
+        int bin = (int) (score * BINS);
+        bins[Math.max(0, Math.min(BINS - 1, bin))]++;
+        count++;
+        scaledSum += Math.round(score * SUM_SCALE);
+        min = Math.min(min, score);
+        max = Math.max(max, score);
+    }
+
+    public void merge(ScoreDistribution other) {
+        for (int i = 0; i < BINS; i++) {
+            bins[i] += other.bins[i];
+        }
+        count += other.count;
+        scaledSum += other.scaledSum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : scaledSum / (count * SUM_SCALE);
+    }
+
+    /**
+     * @return the upper edge of the bin containing the given quantile
+     */
+    public double percentile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            seen += bins[i];
+            if (seen >= rank) {
+                return (i + 1) / (double) BINS;
+            }
+        }
+        return 1.0;
+    }
+
+    public Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("count", count);
+        if (count == 0) {
+            return report;
+        }
+        report.put("mean", round(getMean()));
+        report.put("min", round(min));
+        report.put("max", round(max));
+        report.put("p50", round(percentile(0.50)));
+        report.put("p90", round(percentile(0.90)));
+        report.put("p99", round(percentile(0.99)));
+
+        // Same ten buckets as the dashboard's fraud-score histogram
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        int binsPerBucket = BINS / REPORTED_BUCKETS;
+        for (int bucket = 0; bucket < REPORTED_BUCKETS; bucket++) {
+            long bucketCount = 0;
+            for (int i = bucket * binsPerBucket; i < (bucket + 1) * binsPerBucket; i++) {
+                bucketCount += bins[i];
+            }
+            histogram.put(String.format("%.1f-%.1f", bucket / 10.0, (bucket + 1) / 10.0), bucketCount);
+        }
+        report.put("histogram", histogram);
+        return report;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+}
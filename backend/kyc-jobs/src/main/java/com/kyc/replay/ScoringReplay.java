@@ -0,0 +1,173 @@
+package com.kyc.replay;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.kyc.agents.DocumentValidationAgent;
+import com.kyc.agents.FraudDetectionAgent;
+import com.kyc.agents.IdentityVerificationAgent;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.scoring.ScoringContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ScoringReplay
+ *
+ * Offline simulation of the scoring rules over recorded cases:
+ * - Reads KYCEvent records from NDJSON files (plain or gzip, e.g. the
+ *   analytics export) and replays each Document.Validated input
+ * - Runs every case through the agents' pure scoring in workflow order,
+ *   stopping where the state machine would
+ * - Uses all cores via parallel streams; each worker accumulates into its own
+ *   {@link ReplayStats} and the partitions are merged at the end
+ * - Prints outcome counts and score distributions as JSON
+ *
+ * No AWS clients are created. Results depend only on the seed and the cases,
+ * so two runs with the same seed compare scoring versions case for case.
+ *
+ * Usage: ScoringReplay [--seed N] [--output report.json] file...
+ */
+public class ScoringReplay {
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final long seed;
+
+    public ScoringReplay(long seed) {
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Per-case agent logging would dominate the run time
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+
+        long seed = 0;
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--output" -> output = Path.of(args[++i]);
+                default -> inputs.add(Path.of(args[i]));
+            }
+        }
+
+        long start = System.nanoTime();
+        ReplayStats stats;
+        // Concatenated (not flat-mapped) so each file's lines still split across workers;
+        // closing the concatenation closes every file
+        try (Stream<KYCEvent> events = inputs.stream()
+                .map(ScoringReplay::readEvents)
+                .reduce(Stream::concat)
+                .orElseGet(Stream::empty)) {
+            stats = new ScoringReplay(seed).replay(events);
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seed", seed);
+        report.put("elapsedMs", elapsedMs);
+        report.put("casesPerSecond", elapsedMs == 0 ? stats.getCases() : stats.getCases() * 1000 / elapsedMs);
+        report.putAll(stats.toReport());
+
+        String json = objectMapper.writeValueAsString(report);
+        if (output != null) {
+            Files.writeString(output, json);
+        }
+        System.out.println(json);
+    }
+
+    /**
+     * Replays the given recorded events in parallel.
+     */
+    public ReplayStats replay(Stream<KYCEvent> events) {
+        return events
+            .parallel()
+            .filter(ScoringReplay::isWorkflowInput)
+            .map(this::replayCase)
+            .collect(ReplayStats::new, ReplayStats::accept, ReplayStats::merge);
+    }
+
+    /**
+     * Runs one case through validation, identity verification and fraud
+     * detection, following the state machine's choice states.
+     */
+    public ReplayCase replayCase(KYCEvent input) {
+        String customerId = input.getCustomerId();
+        String documentUrl = input.getDocumentUrl();
+        ScoringContext scoring = ScoringContext.seeded(seed, customerId, documentUrl);
+
+        KYCEvent validation = DocumentValidationAgent.evaluate(customerId, documentUrl, scoring);
+        if (!validation.getIsValid()) {
+            return new ReplayCase(validation, null, null, KYCStatus.FAILED, "DocumentValidation");
+        }
+        KYCEvent verification = IdentityVerificationAgent.evaluate(customerId, documentUrl, scoring);
+        if (!verification.getIsVerified()) {
+            return new ReplayCase(validation, verification, null, KYCStatus.FAILED, "IdentityVerification");
+        }
+        KYCEvent fraud = FraudDetectionAgent.evaluate(customerId, documentUrl, scoring);
+        if (fraud.getFraudDetected()) {
+            return new ReplayCase(validation, verification, fraud, KYCStatus.FRAUD_DETECTED, "FraudDetection");
+        }
+        return new ReplayCase(validation, verification, fraud, KYCStatus.COMPLETED, "ComplianceReporting");
+    }
+
+    // Exports hold every step's event; only the document upload starts a case
+    private static boolean isWorkflowInput(KYCEvent event) {
+        return event.getCustomerId() != null && event.getDocumentUrl() != null
+            && (event.getEventType() == null || "Document.Validated".equals(event.getEventType()));
+    }
+
+    /**
+     * Lines of one file as events; the file is closed when the stream is.
+     */
+    static Stream<KYCEvent> readEvents(Path path) {
+        try {
+            Stream<String> lines = path.toString().endsWith(".gz") ? gzipLines(path) : Files.lines(path);
+            return lines.filter(line -> !line.isBlank()).map(ScoringReplay::parse);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + path, e);
+        }
+    }
+
+    private static Stream<String> gzipLines(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(in), StandardCharsets.UTF_8));
+            return reader.lines().onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to close " + path, e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private static KYCEvent parse(String line) {
+        try {
+            return objectMapper.readValue(line, KYCEvent.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed event: " + line, e);
+        }
+    }
+}
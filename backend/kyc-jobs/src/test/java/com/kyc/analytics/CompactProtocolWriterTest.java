@@ -0,0 +1,88 @@
+package com.kyc.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CompactProtocolWriterTest {
+
+    @Test
+    void writesFieldDeltasAndFallsBackToFullIdsAfterLargeGaps() {
+        CompactProtocolWriter writer = new CompactProtocolWriter();
+        writer.structBegin();
+        writer.i32Field(1, 1);
+        writer.i32Field(3, -1);
+        writer.i32Field(20, 300);
+        writer.structEnd();
+
+        assertArrayEquals(bytes(
+            0x15, 0x02,
+            0x25, 0x01,
+            0x05, 0x28, 0xD8, 0x04,
+            0x00), writer.toByteArray());
+    }
+
+    @Test
+    void restoresTheEnclosingFieldIdAfterANestedStruct() {
+        CompactProtocolWriter writer = new CompactProtocolWriter();
+        writer.structBegin();
+        writer.i32Field(1, 0);
+        writer.structField(4);
+        writer.i32Field(1, 7);
+        writer.structEnd();
+        writer.i32Field(5, 1);
+        writer.structEnd();
+
+        assertArrayEquals(bytes(
+            0x15, 0x00,
+            0x3C,
+            0x15, 0x0E,
+            0x00,
+            0x15, 0x02,
+            0x00), writer.toByteArray());
+    }
+
+    @Test
+    void zigzagEncodesIntegerExtremesAndLargeLongs() {
+        CompactProtocolWriter writer = new CompactProtocolWriter();
+        writer.structBegin();
+        writer.i32Field(1, Integer.MIN_VALUE);
+        writer.i32Field(2, Integer.MAX_VALUE);
+        writer.i64Field(3, -1_234_567_890_123L);
+        writer.i64Field(4, 1L << 40);
+        writer.structEnd();
+
+        assertArrayEquals(bytes(
+            0x15, 0xFF, 0xFF, 0xFF, 0xFF, 0x0F,
+            0x15, 0xFE, 0xFF, 0xFF, 0xFF, 0x0F,
+            0x16, 0x95, 0x93, 0xD8, 0x9F, 0xEE, 0x47,
+            0x16, 0x80, 0x80, 0x80, 0x80, 0x80, 0x40,
+            0x00), writer.toByteArray());
+    }
+
+    @Test
+    void writesShortAndLongListHeadersAndUtf8Strings() {
+        CompactProtocolWriter writer = new CompactProtocolWriter();
+        writer.structBegin();
+        writer.listField(2, CompactProtocolWriter.I32, 2);
+        writer.i32(1);
+        writer.i32(-2);
+        writer.listField(3, CompactProtocolWriter.STRUCT, 20);
+        writer.stringField(4, "né");
+        writer.structEnd();
+
+        assertArrayEquals(bytes(
+            0x29, 0x25, 0x02, 0x03,
+            0x19, 0xFC, 0x14,
+            0x18, 0x03, 'n', 0xC3, 0xA9,
+            0x00), writer.toByteArray());
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kyc.analytics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Keeps written objects in memory and can fail the nth put. */
+final class InMemorySink implements ObjectSink {
+    final Map<String, byte[]> objects = new TreeMap<>();
+    final List<String> deleted = new ArrayList<>();
+    int puts;
+    int failOnPut = -1;
+
+    @Override
+    public void put(String key, byte[] content, String contentType) throws IOException {
+        if (++puts == failOnPut) {
+            throw new IOException("injected put failure for " + key);
+        }
+        objects.put(key, content);
+    }
+
+    @Override
+    public void delete(String key) {
+        deleted.add(key);
+        objects.remove(key);
+    }
+}
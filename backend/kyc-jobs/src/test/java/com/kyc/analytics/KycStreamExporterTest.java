@@ -0,0 +1,125 @@
+package com.kyc.analytics;
+
+import com.amazonaws.services.lambda.runtime.events.DynamodbEvent;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.AttributeValue;
+import com.amazonaws.services.lambda.runtime.events.models.dynamodb.StreamRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KycStreamExporterTest {
+    private final InMemorySink sink = new InMemorySink();
+    private final KycStreamExporter exporter = new KycStreamExporter(sink, "analytics", 64L * 1024 * 1024, 192L * 1024 * 1024);
+
+    @Test
+    void writesEveryRecordBeforeReturning() {
+        Map<String, Object> result = exporter.handleRequest(event(
+            record("100", "customer-1", "VERIFIED"),
+            record("101", "customer-2", "FRAUD_DETECTED"),
+            record("102", "customer-3", "VERIFIED")), null);
+
+        assertEquals(3, ((Number) result.get("exported")).intValue());
+        assertEquals(2, ((Number) result.get("files")).intValue());
+        assertEquals(List.of("customer-1", "customer-3"), customers(
+            "analytics/date=2024-06-01/kycStatus=VERIFIED/part-100-102-000.parquet"));
+        assertEquals(List.of("customer-2"), customers(
+            "analytics/date=2024-06-01/kycStatus=FRAUD_DETECTED/part-100-102-000.parquet"));
+    }
+
+    @Test
+    void exportsUnknownStatusesUnderUnknown() {
+        exporter.handleRequest(event(
+            record("100", "customer-1", "LEGACY_APPROVED"),
+            record("101", "customer-2", null)), null);
+
+        assertEquals(List.of("customer-1", "customer-2"), customers(
+            "analytics/date=2024-06-01/kycStatus=UNKNOWN/part-100-101-000.parquet"));
+    }
+
+    @Test
+    void skipsRemovedItems() {
+        DynamodbEvent.DynamodbStreamRecord removed = record("101", "customer-2", "VERIFIED");
+        removed.setEventName("REMOVE");
+
+        Map<String, Object> result = exporter.handleRequest(event(record("100", "customer-1", "VERIFIED"), removed), null);
+
+        assertEquals(1, ((Number) result.get("exported")).intValue());
+    }
+
+    @Test
+    void deletesTheFilesOfAFailedBatchSoItsRetryAddsNoDuplicates() {
+        sink.failOnPut = 2;
+        DynamodbEvent batch = event(
+            record("100", "customer-1", "VERIFIED"),
+            record("101", "customer-2", "FRAUD_DETECTED"));
+
+        assertThrows(RuntimeException.class, () -> exporter.handleRequest(batch, null));
+        assertTrue(sink.objects.isEmpty(), "no file of the failed batch is left behind");
+
+        // Lambda bisects the failed batch and retries each half
+        exporter.handleRequest(event(record("100", "customer-1", "VERIFIED")), null);
+        exporter.handleRequest(event(record("101", "customer-2", "FRAUD_DETECTED")), null);
+
+        List<Object> exported = new ArrayList<>();
+        for (String key : sink.objects.keySet()) {
+            exported.addAll(customers(key));
+        }
+        exported.sort(null);
+        assertEquals(List.of("customer-1", "customer-2"), exported);
+    }
+
+    @Test
+    void overwritesTheSameFilesWhenTheSameBatchIsRetried() {
+        DynamodbEvent batch = event(
+            record("100", "customer-1", "VERIFIED"),
+            record("101", "customer-2", "FRAUD_DETECTED"));
+
+        exporter.handleRequest(batch, null);
+        Map<String, byte[]> first = new HashMap<>(sink.objects);
+        exporter.handleRequest(batch, null);
+
+        assertEquals(first.keySet(), sink.objects.keySet());
+        for (String key : first.keySet()) {
+            assertArrayEquals(first.get(key), sink.objects.get(key), key);
+        }
+    }
+
+    private List<Object> customers(String key) {
+        byte[] file = sink.objects.get(key);
+        assertTrue(file != null, () -> "missing " + key + " in " + sink.objects.keySet());
+        return ParquetTestReader.read(file).values("customerId");
+    }
+
+    private static DynamodbEvent event(DynamodbEvent.DynamodbStreamRecord... records) {
+        DynamodbEvent event = new DynamodbEvent();
+        event.setRecords(List.of(records));
+        return event;
+    }
+
+    private static DynamodbEvent.DynamodbStreamRecord record(String sequenceNumber, String customerId, String status) {
+        Map<String, AttributeValue> image = new HashMap<>();
+        image.put("customerId", new AttributeValue().withS(customerId));
+        image.put("eventType", new AttributeValue().withS("VerificationCompleted"));
+        image.put("lastUpdated", new AttributeValue().withS("2024-06-01T10:15:30Z"));
+        image.put("verificationScore", new AttributeValue().withN("0.92"));
+        image.put("isVerified", new AttributeValue().withBOOL(true));
+        if (status != null) {
+            image.put("kycStatus", new AttributeValue().withS(status));
+        }
+        StreamRecord streamRecord = new StreamRecord();
+        streamRecord.setSequenceNumber(sequenceNumber);
+        streamRecord.setNewImage(image);
+        DynamodbEvent.DynamodbStreamRecord record = new DynamodbEvent.DynamodbStreamRecord();
+        record.setEventName("MODIFY");
+        record.setDynamodb(streamRecord);
+        return record;
+    }
+}
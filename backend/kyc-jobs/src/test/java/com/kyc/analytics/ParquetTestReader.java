@@ -0,0 +1,267 @@
+package com.kyc.analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads back the files written by {@link ParquetWriter}, independently of it:
+ * decodes the Thrift compact footer and page headers, checks the sizes and
+ * offsets they record, and decodes the RLE definition levels and PLAIN values
+ * of every page.
+ */
+final class ParquetTestReader {
+
+    record Column(String name, int physicalType, int repetition, Integer convertedType, int pages, List<Object> values) {
+    }
+
+    final long rows;
+    final String createdBy;
+    final List<Column> columns = new ArrayList<>();
+
+    private ParquetTestReader(long rows, String createdBy) {
+        this.rows = rows;
+        this.createdBy = createdBy;
+    }
+
+    static ParquetTestReader read(byte[] file) {
+        check(new String(file, 0, 4, StandardCharsets.US_ASCII).equals("PAR1"), "leading magic");
+        check(new String(file, file.length - 4, 4, StandardCharsets.US_ASCII).equals("PAR1"), "trailing magic");
+        int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        int footerStart = file.length - 8 - footerLength;
+        Compact footer = new Compact(file, footerStart);
+        Map<Integer, Object> metadata = footer.struct();
+        check(footer.position == file.length - 8, "footer length matches its encoding");
+        check(((Number) metadata.get(1)).intValue() == 1, "format version");
+
+        long rows = ((Number) metadata.get(3)).longValue();
+        ParquetTestReader reader = new ParquetTestReader(rows, string(metadata.get(6)));
+
+        List<Object> schema = list(metadata.get(2));
+        Map<Integer, Object> root = struct(schema.get(0));
+        check(((Number) root.get(5)).intValue() == schema.size() - 1, "root lists every column");
+
+        List<Object> rowGroups = list(metadata.get(4));
+        check(rowGroups.size() == 1, "one row group");
+        Map<Integer, Object> rowGroup = struct(rowGroups.get(0));
+        check(((Number) rowGroup.get(3)).longValue() == rows, "row group row count");
+        List<Object> chunks = list(rowGroup.get(1));
+        check(chunks.size() == schema.size() - 1, "one chunk per column");
+
+        long uncompressedTotal = 0;
+        long compressedTotal = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<Integer, Object> element = struct(schema.get(i + 1));
+            Map<Integer, Object> chunk = struct(chunks.get(i));
+            Map<Integer, Object> columnMetadata = struct(chunk.get(3));
+            int physicalType = ((Number) element.get(1)).intValue();
+            String name = string(element.get(4));
+
+            check(((Number) columnMetadata.get(1)).intValue() == physicalType, "chunk type matches schema");
+            check(string(list(columnMetadata.get(3)).get(0)).equals(name), "chunk path matches schema");
+            check(((Number) columnMetadata.get(4)).intValue() == 2, "GZIP codec");
+            check(((Number) columnMetadata.get(5)).longValue() == rows, "chunk value count");
+            long offset = ((Number) columnMetadata.get(9)).longValue();
+            check(((Number) chunk.get(2)).longValue() == offset, "chunk file offset");
+            if (i == 0) {
+                check(((Number) rowGroup.get(5)).longValue() == offset, "row group file offset");
+            }
+
+            Compact pages = new Compact(file, (int) offset);
+            List<Object> values = new ArrayList<>();
+            int pageCount = 0;
+            long uncompressed = 0;
+            long compressed = 0;
+            do {
+                int headerStart = pages.position;
+                Map<Integer, Object> header = pages.struct();
+                int headerLength = pages.position - headerStart;
+                check(((Number) header.get(1)).intValue() == 0, "data page");
+                int uncompressedSize = ((Number) header.get(2)).intValue();
+                int compressedSize = ((Number) header.get(3)).intValue();
+                Map<Integer, Object> dataPage = struct(header.get(5));
+                int pageRows = ((Number) dataPage.get(1)).intValue();
+                check(((Number) dataPage.get(2)).intValue() == 0, "PLAIN values");
+                check(((Number) dataPage.get(3)).intValue() == 3, "RLE definition levels");
+
+                byte[] body = gunzip(Arrays.copyOfRange(file, pages.position, pages.position + compressedSize));
+                check(body.length == uncompressedSize, "page uncompressed size");
+                values.addAll(decodePage(body, pageRows, physicalType));
+                pages.position += compressedSize;
+                uncompressed += headerLength + uncompressedSize;
+                compressed += headerLength + compressedSize;
+                pageCount++;
+            } while (values.size() < rows);
+            check(values.size() == rows, "pages hold exactly the chunk's values");
+            check(((Number) columnMetadata.get(6)).longValue() == uncompressed, "chunk uncompressed size");
+            check(((Number) columnMetadata.get(7)).longValue() == compressed, "chunk compressed size");
+            uncompressedTotal += uncompressed;
+            compressedTotal += compressed;
+
+            Integer convertedType = element.containsKey(6) ? ((Number) element.get(6)).intValue() : null;
+            reader.columns.add(new Column(name, physicalType, ((Number) element.get(3)).intValue(),
+                convertedType, pageCount, values));
+        }
+        check(((Number) rowGroup.get(2)).longValue() == uncompressedTotal, "row group byte size");
+        check(((Number) rowGroup.get(6)).longValue() == compressedTotal, "row group compressed size");
+        return reader;
+    }
+
+    List<Object> values(String column) {
+        return columns.stream().filter(c -> c.name().equals(column)).findFirst().orElseThrow().values();
+    }
+
+    private static List<Object> decodePage(byte[] body, int pageRows, int physicalType) {
+        ByteBuffer page = ByteBuffer.wrap(body).order(ByteOrder.LITTLE_ENDIAN);
+        int levelsLength = page.getInt();
+        Compact levels = new Compact(body, 4);
+        List<Integer> definitionLevels = new ArrayList<>(pageRows);
+        while (levels.position < 4 + levelsLength) {
+            long runHeader = levels.varint();
+            check((runHeader & 1) == 0, "RLE run, not bit-packed");
+            int level = levels.bytes[levels.position++];
+            for (long n = 0; n < runHeader >>> 1; n++) {
+                definitionLevels.add(level);
+            }
+        }
+        check(definitionLevels.size() == pageRows, "one definition level per row");
+
+        page.position(4 + levelsLength);
+        List<Object> values = new ArrayList<>(pageRows);
+        int bit = 0;
+        for (int level : definitionLevels) {
+            if (level == 0) {
+                values.add(null);
+                continue;
+            }
+            switch (physicalType) {
+                case 0 -> {
+                    values.add((body[4 + levelsLength + bit / 8] >> (bit % 8) & 1) == 1);
+                    bit++;
+                }
+                case 5 -> values.add(page.getDouble());
+                case 6 -> {
+                    byte[] utf8 = new byte[page.getInt()];
+                    page.get(utf8);
+                    values.add(new String(utf8, StandardCharsets.UTF_8));
+                }
+                default -> throw new AssertionError("unexpected physical type " + physicalType);
+            }
+        }
+        int end = physicalType == 0 ? 4 + levelsLength + (bit + 7) / 8 : page.position();
+        check(end == body.length, "page has no trailing bytes");
+        return values;
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new AssertionError("Invalid Parquet file: " + what);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Object> struct(Object value) {
+        return (Map<Integer, Object>) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> list(Object value) {
+        return (List<Object>) value;
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : new String((byte[]) value, StandardCharsets.UTF_8);
+    }
+
+    /** Thrift compact protocol decoder; structs are returned as field id to value maps. */
+    static final class Compact {
+        private final byte[] bytes;
+        private int position;
+
+        Compact(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        Map<Integer, Object> struct() {
+            Map<Integer, Object> fields = new HashMap<>();
+            int lastFieldId = 0;
+            while (true) {
+                int header = bytes[position++] & 0xFF;
+                if (header == 0) {
+                    return fields;
+                }
+                int type = header & 0x0F;
+                int delta = header >>> 4;
+                int fieldId = delta != 0 ? lastFieldId + delta : (int) zigzag(varint());
+                lastFieldId = fieldId;
+                fields.put(fieldId, value(type));
+            }
+        }
+
+        Object value(int type) {
+            switch (type) {
+                case 1:
+                    return true;
+                case 2:
+                    return false;
+                case 3:
+                    return bytes[position++];
+                case 4:
+                case 5:
+                case 6:
+                    return zigzag(varint());
+                case 8:
+                    int length = (int) varint();
+                    byte[] binary = Arrays.copyOfRange(bytes, position, position + length);
+                    position += length;
+                    return binary;
+                case 9:
+                case 10:
+                    int header = bytes[position++] & 0xFF;
+                    long size = header >>> 4 == 15 ? varint() : header >>> 4;
+                    List<Object> elements = new ArrayList<>();
+                    for (long i = 0; i < size; i++) {
+                        elements.add(value(header & 0x0F));
+                    }
+                    return elements;
+                case 12:
+                    return struct();
+                default:
+                    throw new AssertionError("unexpected compact type " + type);
+            }
+        }
+
+        long varint() {
+            long result = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = bytes[position++] & 0xFF;
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
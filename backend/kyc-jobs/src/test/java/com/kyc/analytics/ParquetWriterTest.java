@@ -0,0 +1,117 @@
+package com.kyc.analytics;
+
+import com.kyc.analytics.ParquetWriter.Column;
+import com.kyc.analytics.ParquetWriter.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParquetWriterTest {
+    private static final List<Column> COLUMNS = List.of(
+        new Column("name", ColumnType.STRING),
+        new Column("active", ColumnType.BOOLEAN),
+        new Column("score", ColumnType.DOUBLE));
+
+    @Test
+    void roundTripsValuesAndNulls() throws Exception {
+        ParquetWriter writer = new ParquetWriter(COLUMNS);
+        writer.addRow("alice", true, 0.25);
+        writer.addRow(null, false, null);
+        writer.addRow("bö", null, -1.5);
+        writer.addRow("", true, Double.MAX_VALUE);
+
+        ParquetTestReader file = ParquetTestReader.read(writer.toByteArray());
+
+        assertEquals(4L, file.rows);
+        assertEquals(Arrays.asList("alice", null, "bö", ""), file.values("name"));
+        assertEquals(Arrays.asList(true, false, null, true), file.values("active"));
+        assertEquals(Arrays.asList(0.25, null, -1.5, Double.MAX_VALUE), file.values("score"));
+        assertTrue(file.createdBy != null && !file.createdBy.isEmpty());
+    }
+
+    @Test
+    void describesEveryColumnAsOptionalWithItsPhysicalType() throws Exception {
+        ParquetWriter writer = new ParquetWriter(COLUMNS);
+        writer.addRow("alice", true, 1.0);
+
+        List<ParquetTestReader.Column> columns = ParquetTestReader.read(writer.toByteArray()).columns;
+
+        assertEquals(3, columns.size());
+        assertEquals("name", columns.get(0).name());
+        assertEquals(6, columns.get(0).physicalType());
+        assertEquals(0, columns.get(0).convertedType().intValue(), "strings are annotated as UTF8");
+        assertEquals(0, columns.get(1).physicalType());
+        assertNull(columns.get(1).convertedType());
+        assertEquals(5, columns.get(2).physicalType());
+        for (ParquetTestReader.Column column : columns) {
+            assertEquals(1, column.repetition(), column.name() + " is optional");
+        }
+    }
+
+    @Test
+    void splitsLargeColumnsIntoPagesWithNullsAcrossPageBoundaries() throws Exception {
+        ParquetWriter writer = new ParquetWriter(COLUMNS, 64);
+        List<Object> names = new ArrayList<>();
+        List<Object> flags = new ArrayList<>();
+        List<Object> scores = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String name = i % 7 < 3 ? null : "customer-" + i;
+            Boolean flag = i % 5 == 0 ? null : i % 3 == 0;
+            Double score = i % 11 < 4 ? null : i / 8.0;
+            writer.addRow(name, flag, score);
+            names.add(name);
+            flags.add(flag);
+            scores.add(score);
+        }
+
+        ParquetTestReader file = ParquetTestReader.read(writer.toByteArray());
+
+        assertEquals(names, file.values("name"));
+        assertEquals(flags, file.values("active"));
+        assertEquals(scores, file.values("score"));
+        for (ParquetTestReader.Column column : file.columns) {
+            assertTrue(column.pages() > 1, column.name() + " spans several pages");
+        }
+    }
+
+    @Test
+    void writesAValidFileWithoutRows() throws Exception {
+        ParquetTestReader file = ParquetTestReader.read(new ParquetWriter(COLUMNS).toByteArray());
+
+        assertEquals(0L, file.rows);
+        assertEquals(3, file.columns.size());
+        assertTrue(file.values("name").isEmpty());
+    }
+
+    @Test
+    void encodesTheSameBytesWhenCalledAgain() throws Exception {
+        ParquetWriter writer = new ParquetWriter(COLUMNS, 64);
+        for (int i = 0; i < 50; i++) {
+            writer.addRow("customer-" + i, i % 2 == 0, (double) i);
+        }
+
+        byte[] first = writer.toByteArray();
+        assertArrayEquals(first, writer.toByteArray());
+
+        writer.addRow("late", null, null);
+        ParquetTestReader file = ParquetTestReader.read(writer.toByteArray());
+        assertEquals(51L, file.rows);
+        assertEquals("late", file.values("name").get(50));
+    }
+
+    @Test
+    void rejectsRowsWithTheWrongNumberOfValues() {
+        ParquetWriter writer = new ParquetWriter(COLUMNS);
+
+        assertThrows(IllegalArgumentException.class, () -> writer.addRow("alice", true));
+        assertEquals(0, writer.getRows());
+    }
+}
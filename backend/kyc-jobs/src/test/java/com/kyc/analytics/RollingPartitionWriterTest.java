@@ -0,0 +1,127 @@
+package com.kyc.analytics;
+
+import com.kyc.analytics.ParquetWriter.Column;
+import com.kyc.analytics.ParquetWriter.ColumnType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingPartitionWriterTest {
+    private static final List<Column> COLUMNS = List.of(new Column("customerId", ColumnType.STRING));
+    // "customer-00" as a length-prefixed PLAIN string; a run of equal definition levels is counted once it ends
+    private static final long ROW_BYTES = 4 + 11;
+
+    private final InMemorySink sink = new InMemorySink();
+
+    @Test
+    void rollsAPartOnceItReachesTheFileLimit() throws Exception {
+        RollingPartitionWriter writer = writer("batch-1", 3 * ROW_BYTES, Long.MAX_VALUE);
+
+        for (int i = 0; i < 7; i++) {
+            writer.write("kycStatus=VERIFIED", String.format("customer-%02d", i));
+        }
+        assertEquals(2, writer.getFilesWritten());
+        writer.flush();
+
+        assertEquals(List.of(
+            "analytics/kycStatus=VERIFIED/part-batch-1-000.parquet",
+            "analytics/kycStatus=VERIFIED/part-batch-1-001.parquet",
+            "analytics/kycStatus=VERIFIED/part-batch-1-002.parquet"), writer.getWrittenKeys());
+        assertEquals(List.of("customer-00", "customer-01", "customer-02"),
+            values("analytics/kycStatus=VERIFIED/part-batch-1-000.parquet"));
+        assertEquals(List.of("customer-06"), values("analytics/kycStatus=VERIFIED/part-batch-1-002.parquet"));
+        assertEquals(0, writer.getOpenParts());
+        assertEquals(0L, writer.getBufferedBytes());
+    }
+
+    @Test
+    void rollsTheLargestPartWhenTheMemoryLimitIsExceeded() throws Exception {
+        RollingPartitionWriter writer = writer("batch-1", Long.MAX_VALUE, 4 * ROW_BYTES);
+
+        writer.write("kycStatus=VERIFIED", "customer-00");
+        writer.write("kycStatus=VERIFIED", "customer-01");
+        writer.write("kycStatus=VERIFIED", "customer-02");
+        writer.write("kycStatus=REJECTED", "customer-03");
+        assertEquals(0, writer.getFilesWritten());
+
+        writer.write("kycStatus=PENDING", "customer-04");
+
+        assertEquals(List.of("analytics/kycStatus=VERIFIED/part-batch-1-000.parquet"), writer.getWrittenKeys());
+        assertEquals(2, writer.getOpenParts());
+        assertTrue(writer.getBufferedBytes() <= 4 * ROW_BYTES);
+    }
+
+    @Test
+    void flushWritesEveryOpenPartition() throws Exception {
+        RollingPartitionWriter writer = writer("batch-1", Long.MAX_VALUE, Long.MAX_VALUE);
+        writer.write("kycStatus=VERIFIED", "customer-00");
+        writer.write("kycStatus=REJECTED", "customer-01");
+        writer.write("kycStatus=VERIFIED", "customer-02");
+
+        writer.flush();
+
+        assertEquals(2, sink.objects.size());
+        assertEquals(List.of("customer-00", "customer-02"),
+            values("analytics/kycStatus=VERIFIED/part-batch-1-000.parquet"));
+        assertEquals(List.of("customer-01"), values("analytics/kycStatus=REJECTED/part-batch-1-000.parquet"));
+    }
+
+    @Test
+    void abortDeletesTheFilesAlreadyWritten() throws Exception {
+        RollingPartitionWriter writer = writer("batch-1", 2 * ROW_BYTES, Long.MAX_VALUE);
+        sink.failOnPut = 3;
+        for (int i = 0; i < 4; i++) {
+            writer.write("kycStatus=VERIFIED", String.format("customer-%02d", i));
+        }
+        writer.write("kycStatus=REJECTED", "customer-04");
+
+        assertThrows(IOException.class, writer::flush);
+        writer.abort();
+
+        assertTrue(sink.objects.isEmpty());
+        assertEquals(2, sink.deleted.size());
+        assertEquals(0, writer.getFilesWritten());
+        assertEquals(0, writer.getOpenParts());
+    }
+
+    @Test
+    void writesTheSameKeysAndBytesForTheSameBatch() throws Exception {
+        Map<String, byte[]> first = writeBatch("1000-1004");
+        Map<String, byte[]> retry = writeBatch("1000-1004");
+
+        assertEquals(first.keySet(), retry.keySet());
+        for (String key : first.keySet()) {
+            assertArrayEquals(first.get(key), retry.get(key), key);
+        }
+        assertTrue(Collections.disjoint(writeBatch("1000-1002").keySet(), first.keySet()),
+            "a smaller retry does not reuse the keys of the whole batch");
+    }
+
+    private Map<String, byte[]> writeBatch(String batchId) throws IOException {
+        InMemorySink batchSink = new InMemorySink();
+        RollingPartitionWriter writer = new RollingPartitionWriter(
+            batchSink, "analytics", COLUMNS, batchId, 2 * ROW_BYTES, Long.MAX_VALUE);
+        for (int i = 0; i < 5; i++) {
+            writer.write(i % 2 == 0 ? "kycStatus=VERIFIED" : "kycStatus=REJECTED", String.format("customer-%02d", i));
+        }
+        writer.flush();
+        return batchSink.objects;
+    }
+
+    private RollingPartitionWriter writer(String batchId, long maxFileBytes, long maxBufferedBytes) {
+        return new RollingPartitionWriter(sink, "analytics", COLUMNS, batchId, maxFileBytes, maxBufferedBytes);
+    }
+
+    private List<Object> values(String key) {
+        return new ArrayList<>(ParquetTestReader.read(sink.objects.get(key)).values("customerId"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.kyc.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RescoreCheckpointTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void resumesFromStringNumberAndBinaryKeys() throws Exception {
+        Map<String, AttributeValue> key = Map.of(
+            "customerId", AttributeValue.builder().s("customer-1").build(),
+            "shard", AttributeValue.builder().n("7").build(),
+            "token", AttributeValue.builder().b(SdkBytes.fromByteArray(new byte[] { 0, -1, 42 })).build());
+        RescoreCheckpoint checkpoint = RescoreCheckpoint.start("run-1", 0, 4);
+        checkpoint.advance(key, 10, Map.of());
+
+        RescoreCheckpoint loaded = objectMapper.readValue(
+            objectMapper.writeValueAsBytes(checkpoint), RescoreCheckpoint.class);
+
+        assertEquals(key, loaded.getExclusiveStartKey());
+        assertFalse(loaded.isScanCompleted());
+    }
+
+    @Test
+    void completesOnlyOnceTheScanIsDoneAndRetriesSucceed() {
+        RescoreCheckpoint checkpoint = RescoreCheckpoint.start("run-1", 0, 4);
+
+        checkpoint.advance(null, 3, Map.of("customer-2", "s3://kyc-documents/uploads/customer-2/id.pdf"));
+        assertTrue(checkpoint.isScanCompleted());
+        assertNull(checkpoint.getExclusiveStartKey());
+        assertFalse(checkpoint.isCompleted());
+
+        checkpoint.retried(1, Map.of());
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(4, checkpoint.getProcessed());
+        assertEquals(1, checkpoint.getFailed());
+    }
+}
@@ -0,0 +1,352 @@
+package com.kyc.batch;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.kyc.agents.FraudDetectionAgent;
+import com.kyc.agents.IdentityVerificationAgent;
+import com.kyc.model.KYCEvent;
+import com.kyc.model.KYCEvent.KYCStatus;
+import com.kyc.resilience.CircuitBreaker;
+import com.kyc.resilience.LatencyTracker;
+import com.kyc.resilience.ProviderGuard;
+import com.kyc.scoring.ScoringContext;
+import com.kyc.tracing.SpanExporter;
+import com.kyc.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
+import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RescoringJobTest {
+    private static final String TABLE = "KYCRecords";
+    private static final int PAGE_SIZE = 2;
+    private static final long TIME_RESERVE_MS = 60_000;
+
+    private final StubDynamoDb dynamoDb = new StubDynamoDb();
+    private final StubS3 s3 = new StubS3();
+    private final StubIdentityAgent identityAgent = new StubIdentityAgent();
+    private final RescoringJob job = new RescoringJob(dynamoDb, new CheckpointStore(s3, "kyc-documents"),
+        identityAgent, new StubFraudAgent(), TABLE, 1, 1, 4, PAGE_SIZE, TIME_RESERVE_MS);
+
+    @Test
+    void resumesTheSegmentFromItsCheckpoint() {
+        dynamoDb.addCustomers(5);
+
+        // Enough time for one page only
+        Map<String, Object> first = job.handleRequest(input(), context(TIME_RESERVE_MS + 1, 0));
+
+        assertEquals(false, first.get("complete"));
+        assertEquals(List.of(0), first.get("segments"));
+        assertEquals(Set.of("customer-1", "customer-2"), dynamoDb.rescoredCustomers());
+
+        Map<String, Object> second = job.handleRequest(input(), context(Integer.MAX_VALUE));
+
+        assertEquals(true, second.get("complete"));
+        assertEquals(5L, second.get("processed"));
+        assertEquals(dynamoDb.scans.get(0).lastEvaluatedKey(), dynamoDb.requests.get(1).exclusiveStartKey(),
+            "the second run starts where the first page ended");
+        assertEquals(5, dynamoDb.rescoredCustomers().size());
+        assertEquals(10, dynamoDb.written.size(), "each customer is written exactly once");
+
+        Map<String, Object> third = job.handleRequest(input(), context(Integer.MAX_VALUE));
+        assertEquals(true, third.get("complete"));
+        assertEquals(3, dynamoDb.requests.size(), "a completed segment is not scanned again");
+    }
+
+    @Test
+    void retriesFailedCustomersOnTheNextRun() {
+        dynamoDb.addCustomers(3);
+        identityAgent.failing.add("customer-2");
+
+        Map<String, Object> first = job.handleRequest(input(), context(Integer.MAX_VALUE));
+
+        assertEquals(false, first.get("complete"), "the segment waits for its failed customer");
+        assertEquals(1L, first.get("failed"));
+        assertEquals(Set.of("customer-1", "customer-3"), dynamoDb.rescoredCustomers());
+
+        identityAgent.failing.clear();
+        int scans = dynamoDb.requests.size();
+        Map<String, Object> second = job.handleRequest(input(), context(Integer.MAX_VALUE));
+
+        assertEquals(true, second.get("complete"));
+        assertEquals(scans, dynamoDb.requests.size(), "only the failed customer is rescored");
+        assertEquals(Set.of("customer-1", "customer-2", "customer-3"), dynamoDb.rescoredCustomers());
+    }
+
+    @Test
+    void retriesUnprocessedItems() {
+        dynamoDb.addCustomers(2);
+        dynamoDb.unprocessedOnFirstWrite = 3;
+
+        Map<String, Object> result = job.handleRequest(input(), context(Integer.MAX_VALUE));
+
+        assertEquals(true, result.get("complete"));
+        assertEquals(2, dynamoDb.batches.size());
+        assertEquals(dynamoDb.batches.get(0).subList(1, 4), dynamoDb.batches.get(1),
+            "only the unprocessed items are sent again");
+        assertEquals(4, new HashSet<>(dynamoDb.written).size());
+    }
+
+    @Test
+    void keepsEachCustomersWritesInTheSameBatch() {
+        RescoringJob largePages = new RescoringJob(dynamoDb, new CheckpointStore(s3, "kyc-documents"),
+            identityAgent, new StubFraudAgent(), TABLE, 1, 1, 4, 100, TIME_RESERVE_MS);
+        dynamoDb.addCustomers(30);
+        identityAgent.unverified.add("customer-7");
+
+        largePages.handleRequest(input(), context(Integer.MAX_VALUE));
+
+        assertTrue(dynamoDb.batches.size() > 1);
+        Set<String> seen = new HashSet<>();
+        for (List<WriteRequest> batch : dynamoDb.batches) {
+            assertTrue(batch.size() <= 25);
+            Map<String, Integer> writesPerCustomer = new HashMap<>();
+            batch.forEach(write -> writesPerCustomer.merge(customerId(write), 1, Integer::sum));
+            writesPerCustomer.forEach((customerId, writes) -> {
+                assertEquals(2, writes.intValue(), customerId + " has its identity and fraud writes together");
+                assertTrue(seen.add(customerId), customerId + " is written in one batch");
+            });
+        }
+        assertEquals(30, seen.size());
+        WriteRequest delete = dynamoDb.written.stream()
+            .filter(write -> write.deleteRequest() != null)
+            .findFirst().orElseThrow();
+        assertEquals("customer-7", customerId(delete));
+        assertEquals("Fraud.Checked", delete.deleteRequest().key().get("eventType").s());
+    }
+
+    private static Map<String, Object> input() {
+        return Map.of("runId", "run-1", "totalSegments", 1);
+    }
+
+    private static String customerId(WriteRequest write) {
+        Map<String, AttributeValue> key = write.putRequest() != null
+            ? write.putRequest().item() : write.deleteRequest().key();
+        return key.get("customerId").s();
+    }
+
+    /** Reports the given remaining times in turn, then the last one. */
+    private static Context context(long... remainingMillis) {
+        AtomicInteger calls = new AtomicInteger();
+        return new Context() {
+            @Override
+            public int getRemainingTimeInMillis() {
+                int call = Math.min(calls.getAndIncrement(), remainingMillis.length - 1);
+                return (int) Math.min(Integer.MAX_VALUE, remainingMillis[call]);
+            }
+
+            @Override
+            public String getAwsRequestId() {
+                return "request-1";
+            }
+
+            @Override
+            public String getLogGroupName() {
+                return null;
+            }
+
+            @Override
+            public String getLogStreamName() {
+                return null;
+            }
+
+            @Override
+            public String getFunctionName() {
+                return "RescoringJob";
+            }
+
+            @Override
+            public String getFunctionVersion() {
+                return null;
+            }
+
+            @Override
+            public String getInvokedFunctionArn() {
+                return null;
+            }
+
+            @Override
+            public CognitoIdentity getIdentity() {
+                return null;
+            }
+
+            @Override
+            public ClientContext getClientContext() {
+                return null;
+            }
+
+            @Override
+            public int getMemoryLimitInMB() {
+                return 1024;
+            }
+
+            @Override
+            public LambdaLogger getLogger() {
+                return null;
+            }
+        };
+    }
+
+    private static ProviderGuard guard() {
+        return new ProviderGuard("test", 8, 100, new CircuitBreaker("test", 20, 10, 1.0, 30_000, 3),
+            new LatencyTracker(16), 0.95, 5_000);
+    }
+
+    /** Scores deterministically; fails or leaves unverified the configured customers. */
+    private static class StubIdentityAgent extends IdentityVerificationAgent {
+        final Set<String> failing = ConcurrentHashMap.newKeySet();
+        final Set<String> unverified = ConcurrentHashMap.newKeySet();
+
+        StubIdentityAgent() {
+            super(null, null, new Tracer("IdentityVerificationAgent", SpanExporter.NONE), guard(), TABLE, "kyc-bus");
+        }
+
+        @Override
+        public KYCEvent score(String customerId, String documentUrl) {
+            if (failing.contains(customerId)) {
+                throw new RuntimeException("identity provider unavailable");
+            }
+            KYCEvent event = evaluate(customerId, documentUrl, ScoringContext.seeded(1L, customerId, documentUrl));
+            boolean verified = !unverified.contains(customerId);
+            event.setIsVerified(verified);
+            event.setKycStatus(verified ? KYCStatus.VERIFIED : KYCStatus.FAILED);
+            return event;
+        }
+    }
+
+    private static class StubFraudAgent extends FraudDetectionAgent {
+        StubFraudAgent() {
+            super(null, null, new Tracer("FraudDetectionAgent", SpanExporter.NONE), guard(), TABLE, "kyc-bus");
+        }
+
+        @Override
+        public KYCEvent score(String customerId, String documentUrl) {
+            return evaluate(customerId, documentUrl, ScoringContext.seeded(1L, customerId, documentUrl));
+        }
+    }
+
+    /** One Scan segment over customers keyed by a numeric sequence, and a record of every batch write. */
+    private static class StubDynamoDb implements DynamoDbClient {
+        final List<Map<String, AttributeValue>> items = new ArrayList<>();
+        final List<ScanRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        final List<ScanResponse> scans = Collections.synchronizedList(new ArrayList<>());
+        final List<List<WriteRequest>> batches = Collections.synchronizedList(new ArrayList<>());
+        final List<WriteRequest> written = Collections.synchronizedList(new ArrayList<>());
+        int unprocessedOnFirstWrite;
+
+        void addCustomers(int count) {
+            for (int i = 1; i <= count; i++) {
+                items.add(Map.of(
+                    "customerId", AttributeValue.builder().s("customer-" + i).build(),
+                    "sequence", AttributeValue.builder().n(Integer.toString(i)).build(),
+                    "documentUrl", AttributeValue.builder().s("s3://kyc-documents/uploads/customer-" + i + "/id.pdf").build()));
+            }
+        }
+
+        Set<String> rescoredCustomers() {
+            Set<String> customers = new HashSet<>();
+            written.forEach(write -> customers.add(customerId(write)));
+            return customers;
+        }
+
+        @Override
+        public ScanResponse scan(ScanRequest request) {
+            requests.add(request);
+            int start = request.hasExclusiveStartKey()
+                ? Integer.parseInt(request.exclusiveStartKey().get("sequence").n()) : 0;
+            int end = Math.min(items.size(), start + request.limit());
+            ScanResponse.Builder page = ScanResponse.builder().items(items.subList(start, end));
+            if (end < items.size()) {
+                Map<String, AttributeValue> last = items.get(end - 1);
+                page.lastEvaluatedKey(Map.of("customerId", last.get("customerId"), "sequence", last.get("sequence")));
+            }
+            ScanResponse response = page.build();
+            scans.add(response);
+            return response;
+        }
+
+        @Override
+        public synchronized BatchWriteItemResponse batchWriteItem(BatchWriteItemRequest request) {
+            List<WriteRequest> batch = request.requestItems().get(TABLE);
+            batches.add(batch);
+            int unprocessed = batches.size() == 1 ? Math.min(unprocessedOnFirstWrite, batch.size() - 1) : 0;
+            written.addAll(batch.subList(0, batch.size() - unprocessed));
+            return BatchWriteItemResponse.builder()
+                .unprocessedItems(unprocessed == 0
+                    ? Map.of() : Map.of(TABLE, batch.subList(batch.size() - unprocessed, batch.size())))
+                .build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-dynamodb";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** Keeps checkpoint objects in memory. */
+    private static class StubS3 implements S3Client {
+        final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+        @Override
+        public ResponseBytes<GetObjectResponse> getObjectAsBytes(GetObjectRequest request) {
+            byte[] object = objects.get(request.key());
+            if (object == null) {
+                throw NoSuchKeyException.builder().message(request.key()).build();
+            }
+            return ResponseBytes.fromByteArray(GetObjectResponse.builder().build(), object);
+        }
+
+        @Override
+        public PutObjectResponse putObject(PutObjectRequest request, RequestBody body) {
+            try (InputStream content = body.contentStreamProvider().newStream()) {
+                objects.put(request.key(), content.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return PutObjectResponse.builder().build();
+        }
+
+        @Override
+        public String serviceName() {
+            return "stub-s3";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.kyc.replay;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreDistributionTest {
+
+    @Test
+    void meanDoesNotDependOnTheMergeOrder() {
+        // (0.1 + 0.2) + 0.3 and 0.1 + (0.2 + 0.3) differ in the last bit as doubles
+        ScoreDistribution left = distribution(0.1, 0.2);
+        left.merge(distribution(0.3));
+        ScoreDistribution right = distribution(0.1);
+        right.merge(distribution(0.2, 0.3));
+
+        assertEquals(left.getMean(), right.getMean());
+        assertEquals(0.2, left.getMean());
+    }
+
+    @Test
+    void reportsPercentilesAtBinResolution() {
+        ScoreDistribution distribution = new ScoreDistribution();
+        for (int i = 0; i < 100; i++) {
+            distribution.add(i / 100.0 + 0.005);
+        }
+
+        assertEquals(0.5, distribution.percentile(0.5));
+        assertEquals(0.9, distribution.percentile(0.9));
+        assertEquals(1.0, distribution.percentile(1.0));
+
+        Map<String, Object> report = distribution.toReport();
+        assertEquals(100L, report.get("count"));
+        assertEquals(0.5, report.get("mean"));
+        assertEquals(10L, ((Map<?, ?>) report.get("histogram")).get("0.3-0.4"));
+    }
+
+    @Test
+    void clampsScoresOutsideTheRangeIntoTheEdgeBins() {
+        ScoreDistribution distribution = distribution(-0.5, 1.0);
+
+        assertEquals(0.01, distribution.percentile(0.5));
+        assertEquals(1.0, distribution.percentile(1.0));
+    }
+
+    private static ScoreDistribution distribution(double... scores) {
+        ScoreDistribution distribution = new ScoreDistribution();
+        for (double score : scores) {
+            distribution.add(score);
+        }
+        return distribution;
+    }
+}
@@ -0,0 +1,107 @@
+package com.kyc.replay;
+
+import com.kyc.model.KYCEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringReplayTest {
+    private static final int CASES = 2_000;
+
+    @Test
+    void scoresTheSameCaseIdenticallyForTheSameSeed() {
+        KYCEvent input = input(1);
+
+        ReplayCase first = new ScoringReplay(42).replayCase(input);
+        ReplayCase second = new ScoringReplay(42).replayCase(input);
+
+        assertEquals(first.validation().getVerificationScore(), second.validation().getVerificationScore());
+        assertEquals(first.validation().getIsValid(), second.validation().getIsValid());
+        assertEquals(first.finalStatus(), second.finalStatus());
+        assertEquals(first.stoppedAt(), second.stoppedAt());
+        if (first.fraud() != null) {
+            assertEquals(first.fraud().getFraudScore(), second.fraud().getFraudScore());
+        }
+    }
+
+    @Test
+    void reportsTheSameResultWithOneWorkerAndWithTheCommonPool() throws Exception {
+        List<KYCEvent> inputs = inputs();
+        ScoringReplay replay = new ScoringReplay(42);
+
+        Map<String, Object> commonPool = replay.replay(inputs.stream()).toReport();
+        ForkJoinPool singleWorker = new ForkJoinPool(1);
+        Map<String, Object> oneWorker;
+        try {
+            oneWorker = singleWorker.submit(() -> replay.replay(inputs.stream()).toReport()).get();
+        } finally {
+            singleWorker.shutdown();
+        }
+        List<KYCEvent> shuffled = new ArrayList<>(inputs);
+        Collections.shuffle(shuffled, new Random(7));
+        Map<String, Object> otherOrder = replay.replay(shuffled.stream()).toReport();
+
+        assertEquals(Long.valueOf(CASES), commonPool.get("cases"));
+        assertEquals(commonPool.toString(), oneWorker.toString());
+        assertEquals(commonPool.toString(), otherOrder.toString());
+    }
+
+    @Test
+    void reportsADifferentResultForAnotherSeed() {
+        assertTrue(!new ScoringReplay(42).replay(inputs().stream()).toReport().toString()
+            .equals(new ScoringReplay(43).replay(inputs().stream()).toReport().toString()));
+    }
+
+    @Test
+    void readsPlainAndGzipFilesAndSkipsOtherSteps() throws Exception {
+        Path directory = Files.createTempDirectory("replay");
+        String lines = "{\"customerId\":\"customer-1\",\"documentUrl\":\"s3://kyc-documents/a.pdf\",\"eventType\":\"Document.Validated\"}\n"
+            + "\n"
+            + "{\"customerId\":\"customer-1\",\"documentUrl\":\"s3://kyc-documents/a.pdf\",\"eventType\":\"Identity.Verified\"}\n"
+            + "{\"customerId\":\"customer-2\",\"documentUrl\":\"s3://kyc-documents/b.pdf\",\"unknownField\":1}\n";
+        Path plain = Files.writeString(directory.resolve("cases.ndjson"), lines);
+        Path gzip = directory.resolve("cases.ndjson.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip))) {
+            out.write(lines.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ScoringReplay replay = new ScoringReplay(42);
+        try (Stream<KYCEvent> events = Stream.concat(ScoringReplay.readEvents(plain), ScoringReplay.readEvents(gzip))) {
+            assertEquals(4L, replay.replay(events).getCases());
+        }
+
+        Files.delete(plain);
+        Files.delete(gzip);
+        Files.delete(directory);
+    }
+
+    private static List<KYCEvent> inputs() {
+        List<KYCEvent> inputs = new ArrayList<>(CASES);
+        for (int i = 0; i < CASES; i++) {
+            inputs.add(input(i));
+        }
+        return inputs;
+    }
+
+    private static KYCEvent input(int i) {
+        return KYCEvent.builder()
+            .customerId("customer-" + i)
+            .documentUrl("s3://kyc-documents/uploads/customer-" + i + "/passport.pdf")
+            .eventType("Document.Validated")
+            .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.kyc.runtime;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kyc.agents.ComplianceReportingAgent;
+import com.kyc.agents.DocumentValidationAgent;
+import com.kyc.agents.FraudDetectionAgent;
+import com.kyc.agents.IdentityVerificationAgent;
+import com.kyc.batch.RescoringJob;
+import com.kyc.intake.DocumentIntakeHandler;
+import com.kyc.metrics.WorkflowFailureRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HandlerRegistry
+ *
+ * Maps the function's handler setting to the agent it runs in the native
+ * runtime. Handlers are constructed directly and events are converted by hand
+ * rather than through reflection, so the native image only needs reflection
+ * metadata for the agents' own JSON types. Accepts the same
+ * "class::handleRequest" strings used for the Java runtime.
+ */
+final class HandlerRegistry {
+    private static final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final TypeReference<Map<String, String>> STRING_MAP_TYPE = new TypeReference<>() {};
+
+    /**
+     * One initialized handler: raw event JSON in, response JSON out.
+     */
+    @FunctionalInterface
+    interface Invoker {
+        String invoke(String event, Context context) throws Exception;
+    }
+
+    private HandlerRegistry() {}
+
+    static Invoker resolve(String handlerName) {
+        if (handlerName == null || handlerName.isBlank()) {
+            throw new IllegalArgumentException("No handler configured (_HANDLER is empty)");
+        }
+        String className = handlerName.split("::", 2)[0];
+        switch (className) {
+            case "com.kyc.agents.DocumentValidationAgent": {
+                DocumentValidationAgent agent = new DocumentValidationAgent();
+                return (event, context) -> write(agent.handleRequest(toMap(event), context));
+            }
+            case "com.kyc.agents.IdentityVerificationAgent": {
+                IdentityVerificationAgent agent = new IdentityVerificationAgent();
+                return (event, context) -> write(agent.handleRequest(toMap(event), context));
+            }
+            case "com.kyc.agents.FraudDetectionAgent": {
+                FraudDetectionAgent agent = new FraudDetectionAgent();
+                return (event, context) -> write(agent.handleRequest(toMap(event), context));
+            }
+            case "com.kyc.agents.ComplianceReportingAgent": {
+                ComplianceReportingAgent agent = new ComplianceReportingAgent();
+                return (event, context) -> write(agent.handleRequest(toMap(event), context));
+            }
+            case "com.kyc.metrics.WorkflowFailureRecorder": {
+                WorkflowFailureRecorder recorder = new WorkflowFailureRecorder();
+                return (event, context) -> write(recorder.handleRequest(toMap(event), context));
+            }
+            case "com.kyc.batch.RescoringJob": {
+                RescoringJob job = new RescoringJob();
+                return (event, context) -> write(job.handleRequest(toMap(event), context));
+            }
+            case "com.kyc.intake.DocumentIntakeHandler": {
+                DocumentIntakeHandler handler = new DocumentIntakeHandler();
+                return (event, context) -> write(fromBatchResponse(handler.handleRequest(toSqsEvent(event), context)));
+            }
+            default:
+                throw new IllegalArgumentException("Handler not available in the native runtime: " + handlerName);
+        }
+    }
+
+    private static Map<String, Object> toMap(String event) throws Exception {
+        return objectMapper.readValue(event, MAP_TYPE);
+    }
+
+    private static String write(Object response) throws Exception {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    static SQSEvent toSqsEvent(String event) throws Exception {
+        List<SQSEvent.SQSMessage> messages = new ArrayList<>();
+        for (JsonNode record : objectMapper.readTree(event).path("Records")) {
+            SQSEvent.SQSMessage message = new SQSEvent.SQSMessage();
+            message.setMessageId(record.path("messageId").asText(null));
+            message.setReceiptHandle(record.path("receiptHandle").asText(null));
+            message.setBody(record.path("body").asText(null));
+            message.setMd5OfBody(record.path("md5OfBody").asText(null));
+            message.setEventSource(record.path("eventSource").asText(null));
+            message.setEventSourceArn(record.path("eventSourceARN").asText(null));
+            message.setAwsRegion(record.path("awsRegion").asText(null));
+            if (record.has("attributes")) {
+                message.setAttributes(objectMapper.convertValue(record.path("attributes"), STRING_MAP_TYPE));
+            }
+            messages.add(message);
+        }
+        SQSEvent sqsEvent = new SQSEvent();
+        sqsEvent.setRecords(messages);
+        return sqsEvent;
+    }
+
+    static Map<String, Object> fromBatchResponse(SQSBatchResponse response) {
+        List<Map<String, String>> failures = new ArrayList<>();
+        for (SQSBatchResponse.BatchItemFailure failure : response.getBatchItemFailures()) {
+            failures.add(Map.of("itemIdentifier", failure.getItemIdentifier()));
+        }
+        return Map.of("batchItemFailures", failures);
+    }
+}
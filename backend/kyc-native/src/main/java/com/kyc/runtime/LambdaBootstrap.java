@@ -0,0 +1,121 @@
+package com.kyc.runtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LambdaBootstrap
+ *
+ * Entry point of the native-image build, run by Lambda's custom runtime
+ * (provided.al2023) as the "bootstrap" executable:
+ * - Resolves the handler named in _HANDLER once, at init
+ * - Polls the Runtime API for the next invocation
+ * - Passes the raw event to the handler and posts back its response
+ * - Reports handler failures as invocation errors and startup failures as
+ *   init errors, so Lambda and Step Functions see the same error types as on
+ *   the managed Java runtime
+ *
+ * The same loop runs unchanged under the Lambda Runtime Interface Emulator.
+ */
+public final class LambdaBootstrap {
+    private static final Logger logger = LoggerFactory.getLogger(LambdaBootstrap.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String RUNTIME_PATH = "/2018-06-01/runtime";
+    private static final String TRACE_HEADER_PROPERTY = "com.amazonaws.xray.traceHeader";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .build();
+    private final String runtimeApi;
+
+    private LambdaBootstrap(String runtimeApi) {
+        this.runtimeApi = "http://" + runtimeApi + RUNTIME_PATH;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String runtimeApi = System.getenv("AWS_LAMBDA_RUNTIME_API");
+        if (runtimeApi == null) {
+            throw new IllegalStateException("AWS_LAMBDA_RUNTIME_API is not set; run inside Lambda or the emulator");
+        }
+        LambdaBootstrap bootstrap = new LambdaBootstrap(runtimeApi);
+
+        String handlerName = args.length > 0 ? args[0] : System.getenv("_HANDLER");
+        HandlerRegistry.Invoker invoker;
+        try {
+            invoker = HandlerRegistry.resolve(handlerName);
+        } catch (Throwable e) {
+            logger.error("Failed to initialize handler {}", handlerName, e);
+            bootstrap.postError(bootstrap.runtimeApi + "/init/error", e);
+            System.exit(1);
+            return;
+        }
+        logger.info("Native runtime initialized for handler {}", handlerName);
+
+        bootstrap.run(invoker);
+    }
+
+    private void run(HandlerRegistry.Invoker invoker) throws Exception {
+        while (true) {
+            HttpResponse<String> next = httpClient.send(
+                HttpRequest.newBuilder(URI.create(runtimeApi + "/invocation/next")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+            String requestId = next.headers().firstValue("Lambda-Runtime-Aws-Request-Id").orElseThrow();
+            next.headers().firstValue("Lambda-Runtime-Trace-Id")
+                .ifPresentOrElse(
+                    traceId -> System.setProperty(TRACE_HEADER_PROPERTY, traceId),
+                    () -> System.clearProperty(TRACE_HEADER_PROPERTY));
+
+            RuntimeContext context = new RuntimeContext(
+                requestId,
+                next.headers().firstValue("Lambda-Runtime-Invoked-Function-Arn").orElse(null),
+                next.headers().firstValueAsLong("Lambda-Runtime-Deadline-Ms").orElse(Long.MAX_VALUE));
+
+            try {
+                String response = invoker.invoke(next.body(), context);
+                post(runtimeApi + "/invocation/" + requestId + "/response", response);
+            } catch (Throwable e) {
+                // Errors such as StackOverflowError are reported too, so the invocation does not hang until timeout
+                logger.error("Invocation {} failed", requestId, e);
+                postError(runtimeApi + "/invocation/" + requestId + "/error", e);
+            }
+        }
+    }
+
+    private void post(String url, String body) throws Exception {
+        send(url, HttpRequest.newBuilder(URI.create(url))
+            .POST(HttpRequest.BodyPublishers.ofString(body == null ? "null" : body)));
+    }
+
+    /**
+     * Reports an init or invocation error; only these posts carry the error type header.
+     */
+    private void postError(String url, Throwable e) throws Exception {
+        send(url, HttpRequest.newBuilder(URI.create(url))
+            .header("Lambda-Runtime-Function-Error-Type", "Unhandled")
+            .POST(HttpRequest.BodyPublishers.ofString(errorBody(e))));
+    }
+
+    private void send(String url, HttpRequest.Builder request) throws Exception {
+        HttpResponse<Void> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 300) {
+            logger.warn("Runtime API returned {} for {}", response.statusCode(), url);
+        }
+    }
+
+    private static String errorBody(Throwable e) throws Exception {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("errorMessage", e.getMessage());
+        error.put("errorType", e.getClass().getName());
+        return objectMapper.writeValueAsString(error);
+    }
+}
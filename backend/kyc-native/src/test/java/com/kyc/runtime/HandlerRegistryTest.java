@@ -0,0 +1,98 @@
+package com.kyc.runtime;
+
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HandlerRegistryTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // As delivered by the SQS event source mapping for an S3 notification queue
+    private static final String SQS_EVENT = """
+        {
+          "Records": [
+            {
+              "messageId": "059f36b4-87a3-44ab-83d2-661975830a7d",
+              "receiptHandle": "AQEBwJnKyrHigUMZj6rYigCgxlaS3SLy0a...",
+              "body": "{\\"Records\\":[{\\"eventName\\":\\"ObjectCreated:Put\\",\\"s3\\":{\\"bucket\\":{\\"name\\":\\"kyc-documents\\"},\\"object\\":{\\"key\\":\\"uploads/customer-1/passport.pdf\\",\\"size\\":1024}}}]}",
+              "attributes": {
+                "ApproximateReceiveCount": "1",
+                "SentTimestamp": "1717236000000",
+                "SenderId": "AIDAIENQZJOLO23YVJ4VO",
+                "ApproximateFirstReceiveTimestamp": "1717236000005"
+              },
+              "messageAttributes": {},
+              "md5OfBody": "e4e68fb7bd0e697a0ae8f1bb342846b3",
+              "eventSource": "aws:sqs",
+              "eventSourceARN": "arn:aws:sqs:us-east-1:123456789012:kyc-document-intake",
+              "awsRegion": "us-east-1"
+            },
+            {
+              "messageId": "2e1424d4-f796-459a-8184-9c92662be6da",
+              "receiptHandle": "AQEBzWwaftRI0KuVm4tP+/7q1rGgNqicHq...",
+              "body": "not json",
+              "attributes": {
+                "ApproximateReceiveCount": "3"
+              },
+              "messageAttributes": {},
+              "md5OfBody": "f5e8b56c1b6d4cd5e3e1aa6c9f2b5a3e",
+              "eventSource": "aws:sqs",
+              "eventSourceARN": "arn:aws:sqs:us-east-1:123456789012:kyc-document-intake",
+              "awsRegion": "us-east-1"
+            }
+          ]
+        }
+        """;
+
+    @Test
+    void convertsAnSqsEventWithoutLosingFields() throws Exception {
+        SQSEvent event = HandlerRegistry.toSqsEvent(SQS_EVENT);
+
+        assertEquals(2, event.getRecords().size());
+        SQSEvent.SQSMessage message = event.getRecords().get(0);
+        assertEquals("059f36b4-87a3-44ab-83d2-661975830a7d", message.getMessageId());
+        assertEquals("AQEBwJnKyrHigUMZj6rYigCgxlaS3SLy0a...", message.getReceiptHandle());
+        assertEquals("uploads/customer-1/passport.pdf",
+            objectMapper.readTree(message.getBody()).path("Records").get(0).path("s3").path("object").path("key").asText());
+        assertEquals("e4e68fb7bd0e697a0ae8f1bb342846b3", message.getMd5OfBody());
+        assertEquals("aws:sqs", message.getEventSource());
+        assertEquals("arn:aws:sqs:us-east-1:123456789012:kyc-document-intake", message.getEventSourceArn());
+        assertEquals("us-east-1", message.getAwsRegion());
+        assertEquals("1", message.getAttributes().get("ApproximateReceiveCount"));
+        assertEquals("not json", event.getRecords().get(1).getBody());
+        assertEquals("3", event.getRecords().get(1).getAttributes().get("ApproximateReceiveCount"));
+    }
+
+    @Test
+    void writesBatchItemFailuresInTheFormatLambdaExpects() throws Exception {
+        SQSEvent event = HandlerRegistry.toSqsEvent(SQS_EVENT);
+        SQSBatchResponse response = new SQSBatchResponse(List.of(
+            new SQSBatchResponse.BatchItemFailure(event.getRecords().get(1).getMessageId())));
+
+        String json = objectMapper.writeValueAsString(HandlerRegistry.fromBatchResponse(response));
+
+        assertEquals(objectMapper.readTree(
+                "{\"batchItemFailures\":[{\"itemIdentifier\":\"2e1424d4-f796-459a-8184-9c92662be6da\"}]}"),
+            objectMapper.readTree(json));
+    }
+
+    @Test
+    void writesAnEmptyFailureListWhenEveryMessageSucceeded() throws Exception {
+        String json = objectMapper.writeValueAsString(
+            HandlerRegistry.fromBatchResponse(new SQSBatchResponse(List.of())));
+
+        assertEquals("{\"batchItemFailures\":[]}", json);
+    }
+
+    @Test
+    void rejectsHandlersThatAreNotRegistered() {
+        assertThrows(IllegalArgumentException.class, () -> HandlerRegistry.resolve("com.kyc.Unknown::handleRequest"));
+        assertThrows(IllegalArgumentException.class, () -> HandlerRegistry.resolve(" "));
+    }
+}
@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# KYC Agents - Native Image Smoke Test
+# Runs the native bootstrap under the Lambda Runtime Interface Emulator (bundled
+# in the provided.al2023 base image) and sends it one event.
+#
+# Usage: ./native-smoke-test.sh [handler] [event-file]
+#   BUILD=1 ./native-smoke-test.sh   also builds kyc-native/target/bootstrap in a GraalVM container
+#
+# The agents talk to the real tables, bus and bucket named by TABLE_NAME,
+# EVENT_BUS_NAME, DOCUMENT_BUCKET and COUNTERS_TABLE_NAME, using the AWS
+# credentials from the calling shell.
+
+set -e
+
+HANDLER=${1:-com.kyc.agents.IdentityVerificationAgent::handleRequest}
+EVENT_FILE=${2:-}
+PORT=${PORT:-9000}
+GRAALVM_IMAGE=${GRAALVM_IMAGE:-ghcr.io/graalvm/native-image-community:21}
+
+cd "$(dirname "$0")"
+
+if [ "${BUILD:-0}" = "1" ]; then
+    echo "Building native image in ${GRAALVM_IMAGE}..."
+    docker run --rm -v "$PWD":/build -v "$HOME/.m2":/root/.m2 -w /build \
+        --entrypoint /bin/bash "$GRAALVM_IMAGE" \
+        -c "microdnf install -y maven >/dev/null && mvn -B -Pnative -DskipTests package -pl kyc-native -am"
+fi
+
+if [ ! -x kyc-native/target/bootstrap ]; then
+    echo "kyc-native/target/bootstrap not found - run with BUILD=1 or 'mvn -Pnative package' on Linux first"
+    exit 1
+fi
+
+if [ -z "$EVENT_FILE" ]; then
+    EVENT_FILE=$(mktemp)
+    cat > "$EVENT_FILE" << 'JSON'
+{
+  "customerId": "smoke-test-customer",
+  "documentUrl": "s3://smoke-test/uploads/smoke-test-customer/passport.jpg"
+}
+JSON
+fi
+
+CONTAINER=$(docker run -d --rm -p "${PORT}:8080" \
+    -v "$PWD/kyc-native/target/bootstrap":/var/runtime/bootstrap:ro \
+    -e AWS_REGION="${AWS_REGION:-us-east-1}" \
+    -e AWS_ACCESS_KEY_ID -e AWS_SECRET_ACCESS_KEY -e AWS_SESSION_TOKEN \
+    -e TABLE_NAME="${TABLE_NAME:-KYCRecords}" \
+    -e EVENT_BUS_NAME="${EVENT_BUS_NAME:-KYCEventBus}" \
+    -e DOCUMENT_BUCKET="${DOCUMENT_BUCKET:-}" \
+    -e COUNTERS_TABLE_NAME="${COUNTERS_TABLE_NAME:-KYCCounters}" \
+    public.ecr.aws/lambda/provided:al2023 "$HANDLER")
+trap 'docker stop "$CONTAINER" >/dev/null' EXIT
+
+sleep 1
+echo "Invoking ${HANDLER}..."
+curl -s -X POST "http://localhost:${PORT}/2015-03-31/functions/function/invocations" -d @"$EVENT_FILE"
+echo
+
+# The emulator prints a REPORT line with the init (cold start) duration
+docker logs "$CONTAINER" 2>&1 | grep -E "REPORT|ERROR" || true
@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { API_ENDPOINTS, KYCEvent, UploadRequest, UploadResponse } from './config';
+import { API_ENDPOINTS, KYCEvent, KYCStats, UploadRequest, UploadResponse } from './config';
 
 const api = axios.create({
   timeout: 10000,
@@ -21,6 +21,12 @@ export const kycApi = {
     return response.data;
   },
 
+  // Get pre-aggregated status counters
+  getStats: async (period?: string): Promise<KYCStats> => {
+    const response = await api.get(API_ENDPOINTS.getStats(period));
+    return response.data;
+  },
+
   // Get presigned upload URL
   getUploadUrl: async (request: UploadRequest): Promise<UploadResponse> => {
     const response = await api.post(API_ENDPOINTS.getUploadUrl(), request);
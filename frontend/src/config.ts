@@ -7,6 +7,8 @@ export const API_ENDPOINTS = {
     status ? `${API_BASE_URL}/kyc?status=${status}` : `${API_BASE_URL}/kyc`,
   getKycById: (customerId: string) => `${API_BASE_URL}/kyc/${customerId}`,
   getUploadUrl: () => `${API_BASE_URL}/upload`,
+  getStats: (period?: string) =>
+    period ? `${API_BASE_URL}/stats?period=${encodeURIComponent(period)}` : `${API_BASE_URL}/stats`,
 };
 
 // KYC Status Types
@@ -24,6 +26,12 @@ export interface KYCEvent {
   metadata?: string;
 }
 
+// Pre-aggregated counters: total, status_<KYCStatus>, fraud_0..fraud_9
+export interface KYCStats {
+  period: string;
+  counters: Record<string, number>;
+}
+
 // Upload Request Interface
 export interface UploadRequest {
   customerId: string;
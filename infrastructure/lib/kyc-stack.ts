@@ -107,6 +107,23 @@ export class KycStack extends cdk.Stack {
       },
     });
 
+    // Sharded, pre-aggregated status and fraud-score counters for the dashboard
+    const countersTable = new dynamodb.Table(this, 'KycCountersTable', {
+      tableName: 'KYCCounters',
+      partitionKey: {
+        name: 'counterKey',
+        type: dynamodb.AttributeType.STRING,
+      },
+      sortKey: {
+        name: 'shard',
+        type: dynamodb.AttributeType.NUMBER,
+      },
+      billingMode: dynamodb.BillingMode.PAY_PER_REQUEST,
+      encryption: dynamodb.TableEncryption.AWS_MANAGED,
+      timeToLiveAttribute: 'expiresAt',
+      removalPolicy: cdk.RemovalPolicy.DESTROY,
+    });
+
     // ========================================
     // EventBridge Event Bus
     // ========================================
@@ -129,10 +146,25 @@ export class KycStack extends cdk.Stack {
     // Grant permissions
     documentBucket.grantReadWrite(lambdaRole);
     kycTable.grantReadWriteData(lambdaRole);
+    countersTable.grantReadWriteData(lambdaRole);
     kycEventBus.grantPutEventsTo(lambdaRole);
 
+    // Agent runtime: 'jvm' deploys each agent's slim package on the Java 21 runtime,
+    // 'native' deploys the GraalVM build (mvn -Pnative package) as a custom runtime
+    const agentRuntime = this.node.tryGetContext('agentRuntime') ?? 'jvm';
+    const backendDir = path.join(__dirname, '../../backend');
+    const agentPackage = (module: string) =>
+      lambda.Code.fromAsset(path.join(backendDir, module, 'target', `${module}-lambda.zip`));
+    const agentCode = (module: string) => agentRuntime === 'native'
+      ? lambda.Code.fromAsset(path.join(backendDir, 'kyc-native/target/kyc-agents-native.zip'))
+      : agentPackage(module);
+
+    // Packages built with -Pcds carry an AppCDS archive at /var/task/classes.jsa;
+    // -Xshare:auto falls back to normal class loading if it does not match the JVM
+    const appCds = this.node.tryGetContext('appCds') === 'true';
+
     const commonLambdaProps = {
-      runtime: lambda.Runtime.JAVA_21,
+      runtime: agentRuntime === 'native' ? lambda.Runtime.PROVIDED_AL2023 : lambda.Runtime.JAVA_21,
       memorySize: 512,
       timeout: cdk.Duration.seconds(30),
       role: lambdaRole,
@@ -140,6 +172,8 @@ export class KycStack extends cdk.Stack {
         TABLE_NAME: kycTable.tableName,
         EVENT_BUS_NAME: kycEventBus.eventBusName,
         DOCUMENT_BUCKET: documentBucket.bucketName,
+        COUNTERS_TABLE_NAME: countersTable.tableName,
+        ...(appCds ? { JAVA_TOOL_OPTIONS: '-XX:SharedArchiveFile=/var/task/classes.jsa -Xshare:auto' } : {}),
       },
       logRetention: logs.RetentionDays.ONE_WEEK,
     };
@@ -148,7 +182,7 @@ export class KycStack extends cdk.Stack {
     const documentValidationAgent = new lambda.Function(this, 'DocumentValidationAgent', {
       ...commonLambdaProps,
       functionName: 'DocumentValidationAgent',
-      code: lambda.Code.fromAsset(path.join(__dirname, '../../backend/target/kyc-agents-1.0.0.jar')),
+      code: agentCode('kyc-document-validation'),
       handler: 'com.kyc.agents.DocumentValidationAgent::handleRequest',
       description: 'Validates uploaded KYC documents',
     });
@@ -157,7 +191,7 @@ export class KycStack extends cdk.Stack {
     const identityVerificationAgent = new lambda.Function(this, 'IdentityVerificationAgent', {
       ...commonLambdaProps,
       functionName: 'IdentityVerificationAgent',
-      code: lambda.Code.fromAsset(path.join(__dirname, '../../backend/target/kyc-agents-1.0.0.jar')),
+      code: agentCode('kyc-identity-verification'),
       handler: 'com.kyc.agents.IdentityVerificationAgent::handleRequest',
       description: 'Verifies customer identity',
     });
@@ -166,7 +200,7 @@ export class KycStack extends cdk.Stack {
     const fraudDetectionAgent = new lambda.Function(this, 'FraudDetectionAgent', {
       ...commonLambdaProps,
       functionName: 'FraudDetectionAgent',
-      code: lambda.Code.fromAsset(path.join(__dirname, '../../backend/target/kyc-agents-1.0.0.jar')),
+      code: agentCode('kyc-fraud-detection'),
       handler: 'com.kyc.agents.FraudDetectionAgent::handleRequest',
       description: 'Detects potential fraud indicators',
     });
@@ -175,19 +209,92 @@ export class KycStack extends cdk.Stack {
     const complianceReportingAgent = new lambda.Function(this, 'ComplianceReportingAgent', {
       ...commonLambdaProps,
       functionName: 'ComplianceReportingAgent',
-      code: lambda.Code.fromAsset(path.join(__dirname, '../../backend/target/kyc-agents-1.0.0.jar')),
+      code: agentCode('kyc-compliance-reporting'),
       handler: 'com.kyc.agents.ComplianceReportingAgent::handleRequest',
       description: 'Generates compliance reports',
     });
 
-    // S3 trigger for Document Validation
-    documentValidationAgent.addEventSource(
-      new cdk.aws_lambda_event_sources.S3EventSource(documentBucket, {
-        events: [s3.EventType.OBJECT_CREATED],
-        filters: [{ prefix: 'uploads/' }],
+    // Batch re-scoring job (invoked manually when scoring rules change)
+    const rescoringJob = new lambda.Function(this, 'RescoringJob', {
+      ...commonLambdaProps,
+      functionName: 'KycRescoringJob',
+      code: agentCode('kyc-jobs'),
+      handler: 'com.kyc.batch.RescoringJob::handleRequest',
+      description: 'Re-scores existing KYC records with parallel segment scans',
+      memorySize: 2048,
+      timeout: cdk.Duration.minutes(15),
+    });
+
+    // Analytics exporter fed from the KYCRecords stream
+    const analyticsExporter = new lambda.Function(this, 'KycStreamExporter', {
+      ...commonLambdaProps,
+      functionName: 'KycStreamExporter',
+      // Stream records are not supported by the native bootstrap; always runs on the JVM
+      runtime: lambda.Runtime.JAVA_21,
+      code: agentPackage('kyc-jobs'),
+      handler: 'com.kyc.analytics.KycStreamExporter::handleRequest',
+      description: 'Exports KYC record changes to partitioned analytics files',
+      memorySize: 1024,
+      timeout: cdk.Duration.minutes(2),
+    });
+
+    analyticsExporter.addEventSource(
+      new cdk.aws_lambda_event_sources.DynamoEventSource(kycTable, {
+        startingPosition: lambda.StartingPosition.TRIM_HORIZON,
+        // Each batch becomes one set of analytics files, so batch as much as the
+        // stream allows (Lambda also caps a batch at 6 MB of payload)
+        batchSize: 10000,
+        maxBatchingWindow: cdk.Duration.minutes(5),
+        bisectBatchOnError: true,
+        retryAttempts: 5,
       })
     );
 
+    // Document intake: 'direct' invokes DocumentValidationAgent per upload,
+    // 'sqs' buffers upload notifications and validates them in batches
+    const intakeMode = this.node.tryGetContext('intakeMode') ?? 'direct';
+
+    if (intakeMode === 'sqs') {
+      const intakeDlq = new cdk.aws_sqs.Queue(this, 'KycIntakeDLQ', {
+        retentionPeriod: cdk.Duration.days(14),
+      });
+
+      const intakeQueue = new cdk.aws_sqs.Queue(this, 'KycIntakeQueue', {
+        visibilityTimeout: cdk.Duration.seconds(180),
+        deadLetterQueue: { queue: intakeDlq, maxReceiveCount: 5 },
+      });
+
+      documentBucket.addEventNotification(
+        s3.EventType.OBJECT_CREATED,
+        new cdk.aws_s3_notifications.SqsDestination(intakeQueue),
+        { prefix: 'uploads/' }
+      );
+
+      const documentIntakeHandler = new lambda.Function(this, 'DocumentIntakeHandler', {
+        ...commonLambdaProps,
+        functionName: 'DocumentIntakeHandler',
+        code: agentCode('kyc-document-validation'),
+        handler: 'com.kyc.intake.DocumentIntakeHandler::handleRequest',
+        description: 'Validates batches of uploaded KYC documents from SQS',
+      });
+
+      documentIntakeHandler.addEventSource(
+        new cdk.aws_lambda_event_sources.SqsEventSource(intakeQueue, {
+          batchSize: Number(this.node.tryGetContext('intakeBatchSize') ?? 50),
+          maxBatchingWindow: cdk.Duration.seconds(Number(this.node.tryGetContext('intakeBatchWindowSeconds') ?? 5)),
+          reportBatchItemFailures: true,
+        })
+      );
+    } else {
+      // S3 trigger for Document Validation
+      documentValidationAgent.addEventSource(
+        new cdk.aws_lambda_event_sources.S3EventSource(documentBucket, {
+          events: [s3.EventType.OBJECT_CREATED],
+          filters: [{ prefix: 'uploads/' }],
+        })
+      );
+    }
+
     // ========================================
     // Step Functions State Machine
     // ========================================
@@ -244,6 +351,27 @@ export class KycStack extends cdk.Stack {
       targets: [new targets.SfnStateMachine(kycStateMachine)],
     });
 
+    // Workflows that end without a compliance decision count as FAILED on the dashboard
+    const workflowFailureRecorder = new lambda.Function(this, 'WorkflowFailureRecorder', {
+      ...commonLambdaProps,
+      functionName: 'WorkflowFailureRecorder',
+      code: agentCode('kyc-compliance-reporting'),
+      handler: 'com.kyc.metrics.WorkflowFailureRecorder::handleRequest',
+      description: 'Counts failed, timed out and aborted KYC workflows',
+    });
+
+    new events.Rule(this, 'WorkflowFailedRule', {
+      eventPattern: {
+        source: ['aws.states'],
+        detailType: ['Step Functions Execution Status Change'],
+        detail: {
+          stateMachineArn: [kycStateMachine.stateMachineArn],
+          status: ['FAILED', 'TIMED_OUT', 'ABORTED'],
+        },
+      },
+      targets: [new targets.LambdaFunction(workflowFailureRecorder, { retryAttempts: 4 })],
+    });
+
     // ========================================
     // API Gateway
     // ========================================
@@ -347,6 +475,33 @@ export class KycStack extends cdk.Stack {
               };
             }
             
+            // Get pre-aggregated counters (period: ALL, DAY#yyyy-mm-dd, HOUR#yyyy-mm-ddThh)
+            if (method === 'GET' && path === '/stats') {
+              const period = event.queryStringParameters?.period || 'ALL';
+              console.log('Reading counters for period:', period);
+              
+              const result = await ddbDocClient.send(new QueryCommand({
+                TableName: process.env.COUNTERS_TABLE_NAME,
+                KeyConditionExpression: 'counterKey = :key',
+                ExpressionAttributeValues: { ':key': period },
+              }));
+              
+              const counters = {};
+              for (const item of result.Items || []) {
+                for (const [name, value] of Object.entries(item)) {
+                  if (typeof value === 'number' && name !== 'shard' && name !== 'expiresAt') {
+                    counters[name] = (counters[name] || 0) + value;
+                  }
+                }
+              }
+              
+              return {
+                statusCode: 200,
+                headers: corsHeaders,
+                body: JSON.stringify({ period, counters }),
+              };
+            }
+            
             // Generate presigned upload URL
             if (method === 'POST' && path === '/upload') {
               const body = JSON.parse(event.body || '{}');
@@ -396,11 +551,13 @@ export class KycStack extends cdk.Stack {
       environment: {
         TABLE_NAME: kycTable.tableName,
         DOCUMENT_BUCKET: documentBucket.bucketName,
+        COUNTERS_TABLE_NAME: countersTable.tableName,
       },
       timeout: cdk.Duration.seconds(10),
     });
 
     kycTable.grantReadData(apiHandler);
+    countersTable.grantReadData(apiHandler);
     documentBucket.grantReadWrite(apiHandler);
 
     // API endpoints
@@ -410,6 +567,9 @@ export class KycStack extends cdk.Stack {
     const kycIdResource = kycResource.addResource('{customerId}');
     kycIdResource.addMethod('GET', new apigateway.LambdaIntegration(apiHandler));
     
+    const statsResource = api.root.addResource('stats');
+    statsResource.addMethod('GET', new apigateway.LambdaIntegration(apiHandler));
+    
     const uploadResource = api.root.addResource('upload');
     uploadResource.addMethod('POST', new apigateway.LambdaIntegration(apiHandler));
 